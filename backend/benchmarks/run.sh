@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# Builds the application jar, builds the benchmarks and runs them with the GC
+# profiler (allocation per operation). Extra arguments go to JMH, e.g.
+#   ./benchmarks/run.sh SplitStrategyBenchmark -p participants=10000
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+mvn -B -q -f ../pom.xml -DskipTests install
+mvn -B -q package
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff target/jmh-result.json "$@"
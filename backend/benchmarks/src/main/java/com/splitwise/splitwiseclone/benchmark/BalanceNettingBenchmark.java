@@ -0,0 +1,121 @@
+package com.splitwise.splitwiseclone.benchmark;
+
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
+import com.splitwise.splitwiseclone.entity.Balance;
+import com.splitwise.splitwiseclone.repository.BalanceRepository;
+import com.splitwise.splitwiseclone.service.BalanceLedger;
+import com.splitwise.splitwiseclone.service.BalanceService;
+import com.splitwise.splitwiseclone.service.strategy.EqualSplitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netting of a synthetic expense stream. {@code netExpenseStream} is the work
+ * a full group recalculation (and the asynchronous writer's batches) does
+ * once the expenses and splits are loaded; {@code updateOrCreateBalance}
+ * applies the same stream expense by expense through
+ * BalanceService.updateBalancesForExpense, the synchronous write path, against
+ * an in-memory balance table so only the netting logic is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceNettingBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int groupSize;
+
+    @Param({ "1000", "10000" })
+    private int expenses;
+
+    /** Upper bound of participants per expense. */
+    @Param({ "8" })
+    private int maxParticipants;
+
+    private List<SyntheticExpense> stream;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        EqualSplitStrategy equal = new EqualSplitStrategy();
+        stream = new ArrayList<>(expenses);
+        for (int i = 0; i < expenses; i++) {
+            int count = Math.min(groupSize, 2 + random.nextInt(maxParticipants - 1));
+            // Consecutive members starting at a random offset: distinct and cheap to generate
+            int offset = random.nextInt(groupSize);
+            List<SplitParticipant> participants = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                participants.add(SplitParticipant.builder().userId(1L + (offset + j) % groupSize).build());
+            }
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            Long paidBy = participants.get(random.nextInt(count)).getUserId();
+            Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+            for (SplitResult split : equal.calculateSplit(amount, participants)) {
+                splits.put(split.getUserId(), split.getAmount());
+            }
+            stream.add(new SyntheticExpense(paidBy, splits));
+        }
+    }
+
+    @Benchmark
+    public Object netExpenseStream() {
+        BalanceLedger ledger = new BalanceLedger();
+        for (SyntheticExpense expense : stream) {
+            ledger.addExpense(expense.paidBy(), expense.splits(), "USD");
+        }
+        return ledger.toBalances(1L);
+    }
+
+    @Benchmark
+    public Object updateOrCreateBalance() {
+        Map<BalanceKey, Balance> table = new HashMap<>();
+        BalanceService balanceService = new BalanceService(inMemoryBalanceRepository(table),
+                null, null, null, null, null, null, null, null);
+        for (SyntheticExpense expense : stream) {
+            balanceService.updateBalancesForExpense(null, expense.paidBy(), expense.splits(), "USD", 1L);
+        }
+        return table;
+    }
+
+    /** The three BalanceRepository methods updateOrCreateBalance uses, over a map */
+    private static BalanceRepository inMemoryBalanceRepository(Map<BalanceKey, Balance> table) {
+        return (BalanceRepository) Proxy.newProxyInstance(BalanceRepository.class.getClassLoader(),
+                new Class<?>[] { BalanceRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByFromUserIdAndToUserIdAndGroupId" ->
+                            Optional.ofNullable(table.get(new BalanceKey((Long) args[0], (Long) args[1], (Long) args[2])));
+                    case "save" -> {
+                        Balance balance = (Balance) args[0];
+                        table.put(BalanceKey.of(balance), balance);
+                        yield balance;
+                    }
+                    case "delete" -> {
+                        table.remove(BalanceKey.of((Balance) args[0]));
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record BalanceKey(Long fromUserId, Long toUserId, Long groupId) {
+        static BalanceKey of(Balance balance) {
+            return new BalanceKey(balance.getFromUserId(), balance.getToUserId(), balance.getGroupId());
+        }
+    }
+
+    private record SyntheticExpense(Long paidBy, Map<Long, BigDecimal> splits) {
+    }
+}
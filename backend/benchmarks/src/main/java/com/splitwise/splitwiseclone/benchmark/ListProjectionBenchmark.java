@@ -0,0 +1,122 @@
+package com.splitwise.splitwiseclone.benchmark;
+
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a group's expense list through Hibernate from an in-memory
+ * H2 database, one session and transaction per operation.
+ * <p>
+ * {@code entities} hydrates managed Expense entities in a read-write session,
+ * so the persistence context keeps a snapshot of every row and dirty-checks
+ * them on commit. {@code readOnlyEntities} is the previous list path
+ * (Spring's readOnly transaction: read-only session, manual flush).
+ * {@code projection} is the constructor-expression query the list endpoints
+ * use now, which selects only the listed columns and creates no managed
+ * entities. Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final Long GROUP_ID = 1L;
+
+    private static final String ENTITY_QUERY = "SELECT e FROM Expense e WHERE e.groupId = :groupId";
+    private static final String PROJECTION_QUERY = "SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary("
+            + "e.id, e.amount, e.description, e.category, e.currency, e.paidBy, e.groupId, e.splitType, "
+            + "e.expenseDate) FROM Expense e WHERE e.groupId = :groupId";
+
+    @Param({ "100", "1000", "10000" })
+    private int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Expense.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:expenses;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.PASS, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .buildSessionFactory();
+
+        LocalDateTime now = LocalDateTime.now();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(Expense.builder()
+                        .amount(BigDecimal.valueOf(100 + i, 2))
+                        .description("Expense " + i)
+                        .category(CategoryType.values()[i % CategoryType.values().length])
+                        .currency("USD")
+                        .paidBy(1L + i % 10)
+                        .groupId(GROUP_ID)
+                        .splitType(SplitType.EQUAL)
+                        .expenseDate(now.minusMinutes(i))
+                        .build());
+                if (i % 100 == 99) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<Expense> entities() {
+        return sessionFactory.fromTransaction(session -> session.createQuery(ENTITY_QUERY, Expense.class)
+                .setParameter("groupId", GROUP_ID)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Expense> readOnlyEntities() {
+        return sessionFactory.fromTransaction(session -> {
+            readOnly(session);
+            return session.createQuery(ENTITY_QUERY, Expense.class)
+                    .setParameter("groupId", GROUP_ID)
+                    .getResultList();
+        });
+    }
+
+    @Benchmark
+    public List<ExpenseSummary> projection() {
+        return sessionFactory.fromTransaction(session -> {
+            readOnly(session);
+            return session.createQuery(PROJECTION_QUERY, ExpenseSummary.class)
+                    .setParameter("groupId", GROUP_ID)
+                    .getResultList();
+        });
+    }
+
+    /**
+     * What Spring's JpaTransactionManager does for readOnly transactions.
+     */
+    private static void readOnly(Session session) {
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+}
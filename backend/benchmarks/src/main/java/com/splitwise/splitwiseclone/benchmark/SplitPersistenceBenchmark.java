@@ -0,0 +1,137 @@
+package com.splitwise.splitwiseclone.benchmark;
+
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
+import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import com.splitwise.splitwiseclone.repository.ExpenseSplitRepositoryImpl;
+import com.splitwise.splitwiseclone.service.strategy.EqualSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.ExactSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.PercentageSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SharesSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SplitStrategyFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a participant list into persisted expense splits, up to
+ * 10k participants.
+ * <p>
+ * {@code buildRowsLegacy} is the previous path (a map of amounts, then a
+ * linear participant lookup per entry); {@code buildRows} builds the same
+ * rows from the ordered split result in one pass. {@code insertRowByRow} and
+ * {@code insertBatched} write the splits into an in-memory H2 table, one
+ * statement per split versus {@link ExpenseSplitRepositoryImpl}'s JDBC batch.
+ * Inserts are rolled back after every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitPersistenceBenchmark {
+
+    private static final BigDecimal TOTAL = new BigDecimal("10000.00");
+    private static final Long EXPENSE_ID = 1L;
+
+    @Param({ "EQUAL", "SHARES" })
+    private SplitType splitType;
+
+    @Param({ "10", "100", "1000", "10000" })
+    private int participants;
+
+    private SplitStrategy strategy;
+    private List<SplitParticipant> input;
+    private List<SplitResult> splits;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ExpenseSplitRepositoryImpl repository;
+
+    @Setup
+    public void setUp() throws SQLException {
+        strategy = new SplitStrategyFactory(new EqualSplitStrategy(), new ExactSplitStrategy(),
+                new PercentageSplitStrategy(), new SharesSplitStrategy()).getStrategy(splitType);
+        input = SplitStrategyBenchmark.participants(splitType, participants, TOTAL);
+        splits = strategy.calculateSplit(TOTAL, input);
+
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:splits;DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource.setAutoCommit(false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS expense_splits ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "expense_id BIGINT NOT NULL, "
+                + "user_id BIGINT NOT NULL, "
+                + "amount NUMERIC(19, 2), "
+                + "percentage NUMERIC(5, 2), "
+                + "shares INTEGER)");
+        dataSource.getConnection().commit();
+        repository = new ExpenseSplitRepositoryImpl(jdbcTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE expense_splits");
+        dataSource.destroy();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        dataSource.getConnection().rollback();
+    }
+
+    @Benchmark
+    public Object buildRowsLegacy() {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        for (SplitResult split : strategy.calculateSplit(TOTAL, input)) {
+            amounts.put(split.getUserId(), split.getAmount());
+        }
+        List<ExpenseSplit> rows = new ArrayList<>(amounts.size());
+        for (Map.Entry<Long, BigDecimal> entry : amounts.entrySet()) {
+            SplitParticipant participant = input.stream()
+                    .filter(p -> p.getUserId().equals(entry.getKey()))
+                    .findFirst()
+                    .orElse(null);
+            rows.add(ExpenseSplit.builder()
+                    .expenseId(EXPENSE_ID)
+                    .userId(entry.getKey())
+                    .amount(entry.getValue())
+                    .percentage(participant != null ? participant.getPercentage() : null)
+                    .shares(participant != null ? participant.getShares() : null)
+                    .build());
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public Object buildRows() {
+        return strategy.calculateSplit(TOTAL, input);
+    }
+
+    @Benchmark
+    public int insertRowByRow() {
+        int rows = 0;
+        for (SplitResult split : splits) {
+            rows += jdbcTemplate.update(
+                    "INSERT INTO expense_splits (expense_id, user_id, amount, percentage, shares) VALUES (?, ?, ?, ?, ?)",
+                    EXPENSE_ID, split.getUserId(), split.getAmount(), split.getPercentage(), split.getShares());
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public void insertBatched() {
+        repository.insertAll(EXPENSE_ID, splits);
+    }
+}
@@ -0,0 +1,81 @@
+package com.splitwise.splitwiseclone.benchmark;
+
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import com.splitwise.splitwiseclone.service.strategy.EqualSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.ExactSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.PercentageSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SharesSplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SplitStrategy;
+import com.splitwise.splitwiseclone.service.strategy.SplitStrategyFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of SplitStrategy.calculateSplit (including validation) per split type
+ * and participant count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitStrategyBenchmark {
+
+    private static final BigDecimal TOTAL = new BigDecimal("10000.00");
+
+    @Param({ "EQUAL", "EXACT", "PERCENTAGE", "SHARES" })
+    private SplitType splitType;
+
+    @Param({ "2", "10", "100", "1000", "10000" })
+    private int participants;
+
+    private SplitStrategy strategy;
+    private List<SplitParticipant> input;
+
+    @Setup
+    public void setUp() {
+        strategy = new SplitStrategyFactory(new EqualSplitStrategy(), new ExactSplitStrategy(),
+                new PercentageSplitStrategy(), new SharesSplitStrategy()).getStrategy(splitType);
+        input = participants(splitType, participants, TOTAL);
+    }
+
+    @Benchmark
+    public Object calculateSplit() {
+        return strategy.calculateSplit(TOTAL, input);
+    }
+
+    /**
+     * Builds a valid participant list for the split type: exact amounts and
+     * percentages sum to the total, shares vary from 1 to 5.
+     */
+    static List<SplitParticipant> participants(SplitType splitType, int count, BigDecimal total) {
+        BigDecimal amount = total.divide(BigDecimal.valueOf(count), 2, RoundingMode.DOWN);
+        BigDecimal percentage = BigDecimal.valueOf(100).divide(BigDecimal.valueOf(count), 4, RoundingMode.DOWN);
+
+        List<SplitParticipant> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean last = i == count - 1;
+            SplitParticipant.SplitParticipantBuilder participant = SplitParticipant.builder().userId(i + 1L);
+            switch (splitType) {
+                case EXACT -> participant.amount(last
+                        ? total.subtract(amount.multiply(BigDecimal.valueOf(count - 1)))
+                        : amount);
+                case PERCENTAGE -> participant.percentage(last
+                        ? BigDecimal.valueOf(100).subtract(percentage.multiply(BigDecimal.valueOf(count - 1)))
+                        : percentage);
+                case SHARES -> participant.shares(1 + i % 5);
+                default -> {
+                }
+            }
+            result.add(participant.build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Builds the application and the harness, starts the application (unless
+# BASE_URL points at one that is already running), seeds a synthetic world,
+# drives mixed traffic and writes target/load-summary.json.
+#
+#   ./loadtest/run.sh                                  # local H2
+#   SPRING_PROFILES_ACTIVE=prod ./loadtest/run.sh      # Postgres (DB_URL, DB_USERNAME, DB_PASSWORD)
+#   BASE_URL=http://host:8080 ./loadtest/run.sh --threads=64 --durationSeconds=300
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+mvn -B -q package
+app_pid=""
+if [[ -z "${BASE_URL:-}" ]]; then
+    mvn -B -q -f ../pom.xml -DskipTests package
+    java ${APP_JAVA_OPTS:-} -jar ../target/splitwise-clone-0.0.1-SNAPSHOT.jar > target/app.log 2>&1 &
+    app_pid=$!
+    trap 'kill "$app_pid" 2>/dev/null || true' EXIT
+    BASE_URL=http://localhost:8080
+    for _ in $(seq 1 120); do
+        if curl -s -o /dev/null "$BASE_URL/api/auth/login"; then
+            break
+        fi
+        sleep 1
+    done
+fi
+
+java -jar target/loadtest.jar --baseUrl="$BASE_URL" "$@"
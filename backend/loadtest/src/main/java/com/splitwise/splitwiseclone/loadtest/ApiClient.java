@@ -0,0 +1,118 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin JSON client for the REST API. Every call is timed and recorded under
+ * an endpoint template name (e.g. "GET /api/expenses/group/{groupId}") so that
+ * ids do not fragment the statistics.
+ */
+public class ApiClient {
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyRecorder recorder;
+    private final long tokenRefreshNanos;
+
+    ApiClient(String baseUrl, LatencyRecorder recorder, int tokenRefreshSeconds) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.tokenRefreshNanos = TimeUnit.SECONDS.toNanos(tokenRefreshSeconds);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Response status and parsed body (null when empty or not JSON).
+     */
+    record Response(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * The user's access token, renewed through /api/auth/refresh once it is
+     * older than tokenRefreshSeconds so that long runs outlive jwt.expiration.
+     * A failed refresh keeps the old token and is retried on the next call.
+     */
+    String token(World.SeededUser user) {
+        synchronized (user) {
+            if (System.nanoTime() - user.issuedAt() >= tokenRefreshNanos) {
+                Response response = post("POST /api/auth/refresh", "/api/auth/refresh", null,
+                        Map.of("refreshToken", user.refreshToken()));
+                if (response.ok() && response.body() != null) {
+                    user.renew(response.body().get("token").asText(), response.body().get("refreshToken").asText());
+                }
+            }
+            return user.token();
+        }
+    }
+
+    Response get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    Response post(String endpoint, String path, String token, Object body) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(publisher)
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(endpoint, response.statusCode(), System.nanoTime() - start);
+            return new Response(response.statusCode(), parse(response.body()));
+        } catch (IOException e) {
+            recorder.record(endpoint, -1, System.nanoTime() - start);
+            return new Response(-1, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, null);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and status counts. Recording is switched on
+ * after the warm-up so the summary only covers the measured window.
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_NANOS = 60_000_000_000L;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private final AtomicLong recordingStartedAt = new AtomicLong();
+    private final AtomicLong recordingStoppedAt = new AtomicLong();
+
+    void start() {
+        recordingStartedAt.set(System.nanoTime());
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        recordingStoppedAt.set(System.nanoTime());
+    }
+
+    void record(String endpoint, int status, long latencyNanos) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.histogram.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        stats.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status >= 400 || status <= 0) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Summary of the measured window, endpoints sorted by name.
+     */
+    Map<String, Object> summarize() {
+        double seconds = (recordingStoppedAt.get() - recordingStartedAt.get()) / 1e9;
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            long requests = histogram.getTotalCount();
+            long errors = entry.getValue().errors.sum();
+            totalRequests += requests;
+            totalErrors += errors;
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", millis(histogram.getMean()));
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+            latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+
+            Map<String, Long> statuses = new TreeMap<>();
+            entry.getValue().statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests);
+            stats.put("errors", errors);
+            stats.put("throughputPerSec", round(requests / seconds));
+            stats.put("latencyMs", latency);
+            stats.put("statuses", statuses);
+            perEndpoint.put(entry.getKey(), stats);
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("measuredSeconds", round(seconds));
+        total.put("requests", totalRequests);
+        total.put("errors", totalErrors);
+        total.put("throughputPerSec", round(totalRequests / seconds));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total);
+        summary.put("endpoints", perEndpoint);
+        return summary;
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class Endpoint {
+        // Three significant digits keeps p999 accurate to 0.1%
+        private final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+    }
+}
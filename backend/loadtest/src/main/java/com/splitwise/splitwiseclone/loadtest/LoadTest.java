@@ -0,0 +1,61 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry point: seeds a synthetic world through the API, drives mixed traffic
+ * for the configured duration and writes a JSON summary with throughput and
+ * p50/p99/p999 latency per endpoint.
+ * <p>
+ * Usage: java -jar loadtest.jar [--key=value ...], see LoadTestConfig for keys.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient client = new ApiClient(config.baseUrl, recorder, config.tokenRefreshSeconds);
+
+        System.out.printf("Seeding %d users and %d groups against %s%n", config.users, config.groups, config.baseUrl);
+        long seedStart = System.nanoTime();
+        WorldSeeder seeder = new WorldSeeder(config, client);
+        World world = seeder.seed();
+        long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+        System.out.printf("Seeded %d expenses and %d settlements in %d ms (%d failures)%n",
+                seeder.expenses.get(), seeder.settlements.get(), seedMillis, seeder.failures.get());
+
+        System.out.printf("Driving %d threads: %ds warm-up, %ds measured%n",
+                config.threads, config.warmupSeconds, config.durationSeconds);
+        new TrafficDriver(config, client, recorder, world).run();
+
+        Map<String, Object> seed = new LinkedHashMap<>();
+        seed.put("users", world.users.size());
+        seed.put("groups", world.groups.size());
+        seed.put("largestGroup", world.groups.stream().mapToInt(group -> group.members().size()).max().orElse(0));
+        seed.put("expenses", seeder.expenses.get());
+        seed.put("settlements", seeder.settlements.get());
+        seed.put("failures", seeder.failures.get());
+        seed.put("durationMs", seedMillis);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("finishedAt", Instant.now().toString());
+        summary.put("config", config.asMap());
+        summary.put("seed", seed);
+        summary.putAll(recorder.summarize());
+
+        File output = new File(config.output);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(output, summary);
+        System.out.println(mapper.writeValueAsString(summary.get("total")));
+        System.out.println("Summary written to " + output.getPath());
+    }
+}
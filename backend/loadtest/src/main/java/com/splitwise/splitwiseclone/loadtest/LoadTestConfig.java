@@ -0,0 +1,101 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, read from --key=value arguments. Every setting has a
+ * default so that a bare run produces a comparable result.
+ */
+public class LoadTestConfig {
+
+    final String baseUrl;
+    final long seed;
+
+    // Synthetic world
+    final int users;
+    final int groups;
+    final int maxGroupSize;
+    final double groupSizeSkew;
+    final int expensesPerMember;
+    final int maxParticipants;
+    final double settleFraction;
+    final int seedThreads;
+
+    // Traffic
+    final int threads;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final long thinkTimeMs;
+    final Map<String, Integer> mix;
+    final int tokenRefreshSeconds; // Below the server's jwt.expiration (15 minutes)
+
+    final String output;
+
+    private LoadTestConfig(Map<String, String> args) {
+        baseUrl = args.getOrDefault("baseUrl", "http://localhost:8080");
+        seed = Long.parseLong(args.getOrDefault("seed", "42"));
+        users = Integer.parseInt(args.getOrDefault("users", "200"));
+        groups = Integer.parseInt(args.getOrDefault("groups", "40"));
+        maxGroupSize = Integer.parseInt(args.getOrDefault("maxGroupSize", "60"));
+        groupSizeSkew = Double.parseDouble(args.getOrDefault("groupSizeSkew", "1.0"));
+        expensesPerMember = Integer.parseInt(args.getOrDefault("expensesPerMember", "3"));
+        maxParticipants = Integer.parseInt(args.getOrDefault("maxParticipants", "12"));
+        settleFraction = Double.parseDouble(args.getOrDefault("settleFraction", "0.5"));
+        seedThreads = Integer.parseInt(args.getOrDefault("seedThreads", "8"));
+        threads = Integer.parseInt(args.getOrDefault("threads", "16"));
+        warmupSeconds = Integer.parseInt(args.getOrDefault("warmupSeconds", "10"));
+        durationSeconds = Integer.parseInt(args.getOrDefault("durationSeconds", "60"));
+        thinkTimeMs = Long.parseLong(args.getOrDefault("thinkTimeMs", "0"));
+        mix = parseMix(args.getOrDefault("mix",
+                "listGroups:10,groupMembers:10,groupExpenses:25,groupBalances:20,userBalances:10,"
+                        + "createExpense:20,settle:5"));
+        tokenRefreshSeconds = Integer.parseInt(args.getOrDefault("tokenRefreshSeconds", "600"));
+        output = args.getOrDefault("output", "target/load-summary.json");
+    }
+
+    static LoadTestConfig fromArgs(String[] argv) {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : argv) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            args.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(args);
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            mix.put(kv[0], Integer.parseInt(kv[1]));
+        }
+        return mix;
+    }
+
+    /**
+     * The settings as written into the summary, so two summaries can be
+     * checked for comparability.
+     */
+    Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("baseUrl", baseUrl);
+        map.put("seed", seed);
+        map.put("users", users);
+        map.put("groups", groups);
+        map.put("maxGroupSize", maxGroupSize);
+        map.put("groupSizeSkew", groupSizeSkew);
+        map.put("expensesPerMember", expensesPerMember);
+        map.put("maxParticipants", maxParticipants);
+        map.put("settleFraction", settleFraction);
+        map.put("threads", threads);
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("durationSeconds", durationSeconds);
+        map.put("thinkTimeMs", thinkTimeMs);
+        map.put("mix", mix);
+        map.put("tokenRefreshSeconds", tokenRefreshSeconds);
+        return map;
+    }
+}
@@ -0,0 +1,140 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop traffic: each worker picks a random user (and one of their
+ * groups, so large groups see proportionally more traffic), picks an
+ * operation by weight from the configured mix, and issues it as that user.
+ */
+public class TrafficDriver {
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final LatencyRecorder recorder;
+    private final World world;
+    private final List<String> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    TrafficDriver(LoadTestConfig config, ApiClient client, LatencyRecorder recorder, World world) {
+        this.config = config;
+        this.client = client;
+        this.recorder = recorder;
+        this.world = world;
+
+        cumulativeWeights = new int[config.mix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : config.mix.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+    }
+
+    void run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.threads);
+        for (int i = 0; i < config.threads; i++) {
+            Random random = new Random(config.seed * 7919 + i);
+            workers.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    issue(random);
+                    if (config.thinkTimeMs > 0) {
+                        try {
+                            Thread.sleep(config.thinkTimeMs);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        recorder.start();
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, end - System.nanoTime()));
+        recorder.stop();
+
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void issue(Random random) {
+        World.SeededUser user = world.randomUserWithGroup(random);
+        World.SeededGroup group = user.groups().get(random.nextInt(user.groups().size()));
+
+        String operation = pick(random);
+        switch (operation) {
+            case "listGroups" -> client.get("GET /api/groups/user/{userId}",
+                    "/api/groups/user/" + user.id(), client.token(user));
+            case "groupMembers" -> client.get("GET /api/groups/{id}/members",
+                    "/api/groups/" + group.id() + "/members", client.token(user));
+            case "groupExpenses" -> client.get("GET /api/expenses/group/{groupId}",
+                    "/api/expenses/group/" + group.id(), client.token(user));
+            case "groupBalances" -> client.get("GET /api/balances/group/{groupId}",
+                    "/api/balances/group/" + group.id(), client.token(user));
+            case "userBalances" -> client.get("GET /api/balances/user/{userId}",
+                    "/api/balances/user/" + user.id(), client.token(user));
+            case "createExpense" -> client.post("POST /api/expenses", "/api/expenses", client.token(user),
+                    World.expensePayload(random, group, user, config.maxParticipants));
+            case "settle" -> settle(random, user);
+            default -> throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+        }
+    }
+
+    /**
+     * Pays back part of one of the user's debts, if they have any.
+     */
+    private void settle(Random random, World.SeededUser user) {
+        ApiClient.Response balances = client.get("GET /api/balances/user/{userId}",
+                "/api/balances/user/" + user.id(), client.token(user));
+        if (!balances.ok() || balances.body() == null) {
+            return;
+        }
+        List<JsonNode> debts = new ArrayList<>();
+        for (JsonNode balance : balances.body()) {
+            if (balance.get("fromUserId").asLong() == user.id() && !balance.get("groupId").isNull()) {
+                debts.add(balance);
+            }
+        }
+        if (debts.isEmpty()) {
+            return;
+        }
+        JsonNode debt = debts.get(random.nextInt(debts.size()));
+        BigDecimal amount = debt.get("amount").decimalValue()
+                .multiply(BigDecimal.valueOf(1 + random.nextInt(100)))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN);
+        if (amount.signum() <= 0) {
+            return;
+        }
+        client.post("POST /api/balances/settle",
+                "/api/balances/settle?fromUserId=" + user.id()
+                        + "&toUserId=" + debt.get("toUserId").asLong()
+                        + "&amount=" + amount.toPlainString()
+                        + "&currency=" + debt.get("currency").asText()
+                        + "&groupId=" + debt.get("groupId").asLong(),
+                client.token(user), null);
+    }
+
+    private String pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The synthetic dataset created by the seeder and used by the traffic driver.
+ */
+public class World {
+
+    static final String[] SPLIT_TYPES = { "EQUAL", "EXACT", "PERCENTAGE", "SHARES" };
+    static final String[] CATEGORIES = { "FOOD", "TRAVEL", "RENT", "UTILITIES", "ENTERTAINMENT", "SHOPPING",
+            "HEALTHCARE", "EDUCATION", "OTHER" };
+
+    /**
+     * Users and groups reference each other, so these are plain classes with
+     * identity equality rather than records.
+     */
+    static final class SeededUser {
+        private final long id;
+        private final List<SeededGroup> groups = new ArrayList<>();
+
+        // Renewed by ApiClient.token under the user's monitor
+        private String token;
+        private String refreshToken;
+        private long issuedAt;
+
+        SeededUser(long id, String token, String refreshToken) {
+            this.id = id;
+            renew(token, refreshToken);
+        }
+
+        long id() {
+            return id;
+        }
+
+        String token() {
+            return token;
+        }
+
+        String refreshToken() {
+            return refreshToken;
+        }
+
+        long issuedAt() {
+            return issuedAt;
+        }
+
+        void renew(String token, String refreshToken) {
+            this.token = token;
+            this.refreshToken = refreshToken;
+            this.issuedAt = System.nanoTime();
+        }
+
+        List<SeededGroup> groups() {
+            return groups;
+        }
+    }
+
+    static final class SeededGroup {
+        private final long id;
+        private final List<SeededUser> members;
+
+        SeededGroup(long id, List<SeededUser> members) {
+            this.id = id;
+            this.members = members;
+        }
+
+        long id() {
+            return id;
+        }
+
+        List<SeededUser> members() {
+            return members;
+        }
+    }
+
+    final List<SeededUser> users = new CopyOnWriteArrayList<>();
+    final List<SeededGroup> groups = new CopyOnWriteArrayList<>();
+
+    SeededUser randomUserWithGroup(Random random) {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            SeededUser user = users.get(random.nextInt(users.size()));
+            if (!user.groups().isEmpty()) {
+                return user;
+            }
+        }
+        throw new IllegalStateException("No user belongs to a group");
+    }
+
+    /**
+     * A valid create-expense payload for a random split type: payer and
+     * participants are members of the group, amounts, percentages and shares
+     * add up.
+     */
+    static Map<String, Object> expensePayload(Random random, SeededGroup group, SeededUser payer, int maxParticipants) {
+        List<SeededUser> members = new ArrayList<>(group.members());
+        members.remove(payer);
+        int others = Math.min(members.size(), 1 + random.nextInt(Math.max(1, maxParticipants - 1)));
+        java.util.Collections.shuffle(members, random);
+
+        List<Long> participantIds = new ArrayList<>();
+        participantIds.add(payer.id());
+        members.subList(0, others).forEach(member -> participantIds.add(member.id()));
+
+        String splitType = SPLIT_TYPES[random.nextInt(SPLIT_TYPES.length)];
+        BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(50_000), 2);
+        int count = participantIds.size();
+
+        List<Map<String, Object>> participants = new ArrayList<>();
+        BigDecimal exactEach = amount.divide(BigDecimal.valueOf(count), 2, RoundingMode.DOWN);
+        BigDecimal percentEach = BigDecimal.valueOf(100).divide(BigDecimal.valueOf(count), 2, RoundingMode.DOWN);
+        for (int i = 0; i < count; i++) {
+            boolean last = i == count - 1;
+            Map<String, Object> participant = new LinkedHashMap<>();
+            participant.put("userId", participantIds.get(i));
+            switch (splitType) {
+                case "EXACT" -> participant.put("amount", last
+                        ? amount.subtract(exactEach.multiply(BigDecimal.valueOf(count - 1)))
+                        : exactEach);
+                case "PERCENTAGE" -> participant.put("percentage", last
+                        ? BigDecimal.valueOf(100).subtract(percentEach.multiply(BigDecimal.valueOf(count - 1)))
+                        : percentEach);
+                case "SHARES" -> participant.put("shares", 1 + random.nextInt(4));
+                default -> {
+                }
+            }
+            participants.add(participant);
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("amount", amount);
+        payload.put("description", "load " + splitType.toLowerCase());
+        payload.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        payload.put("currency", "USD");
+        payload.put("paidBy", payer.id());
+        payload.put("groupId", group.id());
+        payload.put("splitType", splitType);
+        payload.put("participants", participants);
+        return payload;
+    }
+}
@@ -0,0 +1,181 @@
+package com.splitwise.splitwiseclone.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the synthetic world through the public API: users, groups whose
+ * sizes follow a power law (a few large groups, many small ones), expenses
+ * of every split type, and partial settlements of some of the resulting
+ * balances.
+ */
+public class WorldSeeder {
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    final AtomicInteger expenses = new AtomicInteger();
+    final AtomicInteger settlements = new AtomicInteger();
+    final AtomicInteger failures = new AtomicInteger();
+
+    WorldSeeder(LoadTestConfig config, ApiClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    World seed() throws Exception {
+        World world = new World();
+        ExecutorService pool = Executors.newFixedThreadPool(config.seedThreads);
+        try {
+            registerUsers(world, pool);
+            createGroups(world);
+            createExpenses(world, pool);
+            settle(world, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+        return world;
+    }
+
+    private void registerUsers(World world, ExecutorService pool) throws Exception {
+        List<Callable<World.SeededUser>> tasks = new ArrayList<>();
+        for (int i = 0; i < config.users; i++) {
+            int index = i;
+            tasks.add(() -> {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("email", "lt-" + runId + "-" + index + "@load.test");
+                body.put("password", "load-test-pw");
+                body.put("name", "Load User " + index);
+                ApiClient.Response response = client.post("POST /api/auth/register", "/api/auth/register", null,
+                        body);
+                if (!response.ok()) {
+                    throw new IllegalStateException("Registration failed with status " + response.status());
+                }
+                return new World.SeededUser(response.body().get("id").asLong(),
+                        response.body().get("token").asText(), response.body().get("refreshToken").asText());
+            });
+        }
+        for (Future<World.SeededUser> future : pool.invokeAll(tasks)) {
+            world.users.add(future.get());
+        }
+    }
+
+    private void createGroups(World world) {
+        Random random = new Random(config.seed);
+        for (int i = 0; i < config.groups; i++) {
+            // Power-law sizes: group i gets maxGroupSize / (i + 1)^skew members
+            int size = (int) Math.round(config.maxGroupSize / Math.pow(i + 1, config.groupSizeSkew));
+            size = Math.max(2, Math.min(size, world.users.size()));
+
+            List<World.SeededUser> candidates = new ArrayList<>(world.users);
+            Collections.shuffle(candidates, random);
+            List<World.SeededUser> members = new ArrayList<>(candidates.subList(0, size));
+            World.SeededUser creator = members.get(0);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("name", "Load group " + i);
+            body.put("description", size + " members");
+            body.put("createdBy", creator.id());
+            ApiClient.Response created = client.post("POST /api/groups", "/api/groups", client.token(creator), body);
+            if (!created.ok()) {
+                throw new IllegalStateException("Group creation failed with status " + created.status());
+            }
+            long groupId = created.body().get("id").asLong();
+
+            for (World.SeededUser member : members.subList(1, members.size())) {
+                ApiClient.Response added = client.post("POST /api/groups/{groupId}/members/{userId}",
+                        "/api/groups/" + groupId + "/members/" + member.id() + "?requestingUserId=" + creator.id(),
+                        client.token(creator), null);
+                if (!added.ok()) {
+                    failures.incrementAndGet();
+                }
+            }
+
+            World.SeededGroup group = new World.SeededGroup(groupId, members);
+            world.groups.add(group);
+            members.forEach(member -> member.groups().add(group));
+        }
+    }
+
+    private void createExpenses(World world, ExecutorService pool) throws Exception {
+        // One task per group: groups are seeded in parallel, a group's own expenses in order,
+        // so seeding does not depend on how the API handles concurrent writes to one group
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (World.SeededGroup group : world.groups) {
+            Random random = new Random(config.seed * 31 + group.id());
+            int count = group.members().size() * config.expensesPerMember;
+            tasks.add(() -> {
+                for (int i = 0; i < count; i++) {
+                    World.SeededUser payer = group.members().get(random.nextInt(group.members().size()));
+                    ApiClient.Response response = client.post("POST /api/expenses", "/api/expenses",
+                            client.token(payer), World.expensePayload(random, group, payer, config.maxParticipants));
+                    (response.ok() ? expenses : failures).incrementAndGet();
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private void settle(World world, ExecutorService pool) throws Exception {
+        Random random = new Random(config.seed + 1);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (World.SeededGroup group : world.groups) {
+            if (random.nextDouble() >= config.settleFraction) {
+                continue;
+            }
+            tasks.add(() -> {
+                World.SeededUser reader = group.members().get(0);
+                ApiClient.Response balances = client.get("GET /api/balances/group/{groupId}",
+                        "/api/balances/group/" + group.id(), client.token(reader));
+                if (!balances.ok() || balances.body() == null) {
+                    failures.incrementAndGet();
+                    return null;
+                }
+                for (JsonNode balance : balances.body()) {
+                    long fromUserId = balance.get("fromUserId").asLong();
+                    World.SeededUser payer = group.members().stream()
+                            .filter(member -> member.id() == fromUserId)
+                            .findFirst()
+                            .orElse(null);
+                    if (payer == null) {
+                        continue;
+                    }
+                    BigDecimal half = balance.get("amount").decimalValue().divide(BigDecimal.valueOf(2), 2,
+                            RoundingMode.DOWN);
+                    if (half.signum() <= 0) {
+                        continue;
+                    }
+                    ApiClient.Response settled = client.post("POST /api/balances/settle",
+                            "/api/balances/settle?fromUserId=" + fromUserId
+                                    + "&toUserId=" + balance.get("toUserId").asLong()
+                                    + "&amount=" + half.toPlainString()
+                                    + "&currency=" + balance.get("currency").asText()
+                                    + "&groupId=" + group.id(),
+                            client.token(payer), null);
+                    (settled.ok() ? settlements : failures).incrementAndGet();
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Builds the JVM jar and the GraalVM native image, starts each in turn, runs the
+# smoke suite against it and records time to first request and resident set
+# size (after startup and after the smoke suite). Writes
+# target/native-summary.json. Needs a GraalVM JDK for the native target.
+#
+# Experimental: only the JVM target has been run so far; the native image is
+# not yet verified and its startup and memory numbers are pending.
+#
+#   ./native/run.sh                                       # both, in-memory H2
+#   TARGETS=jvm ./native/run.sh                           # JVM only
+#   AOT_PROFILES=prod,native ./native/run.sh              # Postgres (DB_URL, DB_USERNAME, DB_PASSWORD)
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+TARGETS=${TARGETS:-jvm native}
+AOT_PROFILES=${AOT_PROFILES:-native}
+PORT=${PORT:-8091}
+JAR=splitwise-clone-0.0.1-SNAPSHOT.jar
+
+if [[ " $TARGETS " == *" native "* ]] && ! command -v native-image > /dev/null; then
+    echo "native-image not found: install a GraalVM JDK or run with TARGETS=jvm" >&2
+    exit 1
+fi
+
+rm -rf target && mkdir -p target
+mvn -B -q -f ../pom.xml -DskipTests clean package
+cp "../target/$JAR" target/app.jar
+if [[ " $TARGETS " == *" native "* ]]; then
+    mvn -B -q -f ../pom.xml -DskipTests -Pnative -Daot.profiles="$AOT_PROFILES" clean package
+    cp ../target/splitwise-clone target/splitwise-clone
+fi
+
+# The prod profile moves actuator to its own port; keep health on $PORT for the checks below
+app_args=(--server.port="$PORT" --management.server.port="$PORT" --spring.profiles.active="$AOT_PROFILES" "$@")
+
+rss_mb() {
+    awk '/^VmRSS/ {printf "%.1f", $2 / 1024}' "/proc/$1/status"
+}
+
+summary=()
+for target in $TARGETS; do
+    if [[ "$target" == native ]]; then
+        command=(./splitwise-clone "${app_args[@]}")
+    else
+        command=(java -jar app.jar "${app_args[@]}")
+    fi
+    start=$(date +%s%N)
+    # Attachments and the outbox file land in the working directory
+    (cd target && exec "${command[@]}") > "target/$target.log" 2>&1 &
+    pid=$!
+    trap 'kill "$pid" 2>/dev/null || true' EXIT
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health") == 200 ]]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$target exited during startup, see native/target/$target.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    first_request_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    started_rss=$(rss_mb "$pid")
+
+    ./smoke.sh "http://localhost:$PORT" | tee "target/$target-smoke.txt"
+    smoke_rss=$(rss_mb "$pid")
+    kill "$pid"
+    wait "$pid" || true
+
+    summary+=("\"$target\": {\"firstRequestMs\": $first_request_ms, \"rssAfterStartupMb\": $started_rss, \"rssAfterSmokeMb\": $smoke_rss}")
+done
+
+(IFS=','; echo "{${summary[*]}}") | jq . > target/native-summary.json
+cat target/native-summary.json
@@ -0,0 +1,165 @@
+#!/usr/bin/env bash
+# Calls every controller of a running instance once and checks status codes and
+# response shapes, so that missing native-image hints (reflection, resources,
+# serialization) show up as failures. Works against the JVM build and the
+# native binary alike, on H2 or Postgres; users are unique per run.
+#
+#   ./native/smoke.sh                          # http://localhost:8080
+#   ./native/smoke.sh http://localhost:8091
+set -euo pipefail
+
+BASE_URL=${1:-http://localhost:8080}
+run=$(date +%s%N)
+body=""
+checks=0
+
+# call <expected status> <method> <path> [curl args...]; the response is left in $body
+call() {
+    local expected=$1 method=$2 path=$3
+    shift 3
+    local response status
+    response=$(curl -s -X "$method" -w '\n%{http_code}' "$BASE_URL$path" "$@")
+    status=${response##*$'\n'}
+    body=${response%$'\n'*}
+    if [[ "$status" != "$expected" ]]; then
+        echo "FAIL $method $path: expected $expected, got $status: $body" >&2
+        exit 1
+    fi
+    checks=$((checks + 1))
+}
+
+# expect <jq filter>: fails unless the filter is true for $body
+expect() {
+    if [[ $(jq -r "$1" <<< "$body") != true ]]; then
+        echo "FAIL $1 on: $body" >&2
+        exit 1
+    fi
+}
+
+json=(-H 'Content-Type: application/json')
+
+# AuthController, UserController
+call 201 POST /api/auth/register "${json[@]}" \
+    -d "{\"email\":\"alice-$run@smoke.test\",\"password\":\"secret1\",\"name\":\"Alice\"}"
+expect '.token != null and .refreshToken != null'
+alice=$(jq -r .id <<< "$body")
+call 201 POST /api/users/register "${json[@]}" \
+    -d "{\"email\":\"bob-$run@smoke.test\",\"password\":\"secret1\",\"name\":\"Bob\"}"
+bob=$(jq -r .id <<< "$body")
+call 200 POST /api/auth/login "${json[@]}" -d "{\"email\":\"bob-$run@smoke.test\",\"password\":\"secret1\"}"
+bob_auth=(-H "Authorization: Bearer $(jq -r .token <<< "$body")")
+call 200 POST /api/auth/login "${json[@]}" -d "{\"email\":\"alice-$run@smoke.test\",\"password\":\"secret1\"}"
+refresh_token=$(jq -r .refreshToken <<< "$body")
+call 200 POST /api/auth/refresh "${json[@]}" -d "{\"refreshToken\":\"$refresh_token\"}"
+expect '.token != null'
+token=$(jq -r .token <<< "$body")
+refresh_token=$(jq -r .refreshToken <<< "$body")
+auth=(-H "Authorization: Bearer $token")
+call 401 GET "/api/users/$alice"
+call 200 GET "/api/users/$alice" "${auth[@]}"
+expect ".email == \"alice-$run@smoke.test\""
+call 200 GET "/api/users/email/bob-$run@smoke.test" "${auth[@]}"
+call 200 GET "/api/users/search?query=bob-$run" "${auth[@]}"
+expect 'length == 1'
+call 200 POST /api/auth/forgot-password "${json[@]}" -d "{\"email\":\"bob-$run@smoke.test\"}"
+call 200 POST /api/auth/reset-password "${json[@]}" \
+    -d "{\"token\":\"$(jq -r .token <<< "$body")\",\"newPassword\":\"secret2\"}"
+
+# GroupController
+call 201 POST /api/groups "${auth[@]}" "${json[@]}" \
+    -d "{\"name\":\"Smoke $run\",\"description\":\"trip\",\"createdBy\":$alice}"
+group=$(jq -r .id <<< "$body")
+call 201 POST "/api/groups/$group/members/$bob?requestingUserId=$alice" "${auth[@]}"
+call 200 PUT "/api/groups/$group" "${auth[@]}" "${json[@]}" \
+    -d "{\"name\":\"Smoke trip\",\"description\":\"renamed\",\"createdBy\":$alice}"
+call 200 GET "/api/groups/$group" "${auth[@]}"
+expect '.name == "Smoke trip"'
+call 200 GET "/api/groups/user/$alice" "${auth[@]}"
+call 200 GET "/api/groups/$group/members" "${auth[@]}"
+expect 'length == 2'
+
+# Group event stream, serialized GroupChangeEvents
+events=$(mktemp)
+curl -s -N --max-time 4 "${auth[@]}" "$BASE_URL/api/groups/$group/events" > "$events" &
+stream=$!
+sleep 1
+
+# ExpenseController
+expense_body="{\"amount\":90,\"description\":\"dinner\",\"category\":\"FOOD\",\"currency\":\"USD\",\"paidBy\":$alice,
+    \"groupId\":$group,\"splitType\":\"EQUAL\",\"participants\":[{\"userId\":$alice},{\"userId\":$bob}]}"
+call 201 POST /api/expenses "${auth[@]}" "${json[@]}" -H "Idempotency-Key: smoke-$run" -d "$expense_body"
+expense=$(jq -r .id <<< "$body")
+call 201 POST /api/expenses "${auth[@]}" "${json[@]}" -H "Idempotency-Key: smoke-$run" -d "$expense_body"
+expect ".id == $expense"
+call 200 PUT "/api/expenses/$expense" "${auth[@]}" "${json[@]}" \
+    -d "{\"amount\":120,\"description\":\"dinner and taxi\",\"splitType\":\"EQUAL\",
+        \"participants\":[{\"userId\":$alice},{\"userId\":$bob}]}"
+call 200 GET "/api/expenses/$expense" "${auth[@]}"
+expect '.amount == 120'
+call 200 GET "/api/expenses/$expense/splits" "${auth[@]}"
+expect 'length == 2 and (map(.amount) | add) == 120'
+call 200 GET "/api/expenses/group/$group" "${auth[@]}"
+expect 'length == 1'
+call 200 GET "/api/expenses/group/$group/details?size=10" "${auth[@]}"
+expect '.items[0].splits | length == 2'
+call 201 POST /api/expenses "${auth[@]}" "${json[@]}" \
+    -d "{\"amount\":15,\"description\":\"coffee\",\"category\":\"FOOD\",\"currency\":\"USD\",\"paidBy\":$alice,
+        \"splitType\":\"EQUAL\",\"participants\":[{\"userId\":$alice},{\"userId\":$bob}]}"
+personal=$(jq -r .id <<< "$body")
+call 200 GET "/api/expenses/personal/$alice" "${auth[@]}"
+
+# ExpenseAttachmentController
+call 201 POST "/api/expenses/$expense/attachments?fileName=receipt.pdf" "${auth[@]}" \
+    -H 'Content-Type: application/pdf' --data-binary "%PDF-1.4 receipt $run"
+attachment=$(jq -r .id <<< "$body")
+call 200 GET "/api/expenses/$expense/attachments" "${auth[@]}"
+expect 'length == 1'
+call 200 GET "/api/expenses/$expense/attachments/$attachment/content" "${auth[@]}"
+[[ "$body" == "%PDF-1.4 receipt $run" ]] || { echo "FAIL attachment content: $body" >&2; exit 1; }
+call 204 DELETE "/api/expenses/$expense/attachments/$attachment" "${auth[@]}"
+
+# BalanceController
+call 200 GET "/api/balances/group/$group" "${auth[@]}"
+call 200 GET "/api/balances/user/$alice" "${auth[@]}"
+call 200 GET "/api/balances/user/$alice/net" "${auth[@]}"
+call 201 POST "/api/balances/settle?fromUserId=$bob&toUserId=$alice&amount=10&currency=USD&groupId=$group" \
+    "${bob_auth[@]}"
+call 201 POST /api/balances/settle/batch "${bob_auth[@]}" "${json[@]}" \
+    -d "{\"settlements\":[{\"fromUserId\":$bob,\"toUserId\":$alice,\"amount\":5,\"currency\":\"USD\",\"groupId\":$group}]}"
+call 201 POST "/api/balances/settle/all?userId=$bob&otherUserId=$alice" "${bob_auth[@]}"
+call 200 GET "/api/balances/settlements/user/$bob" "${auth[@]}"
+expect 'length >= 2'
+call 200 GET /api/balances/pipeline "${auth[@]}"
+
+# RecurringExpenseController
+call 201 POST /api/recurring-expenses "${auth[@]}" "${json[@]}" \
+    -d "{\"amount\":40,\"description\":\"rent\",\"category\":\"OTHER\",\"currency\":\"USD\",\"paidBy\":$alice,
+        \"groupId\":$group,\"splitType\":\"EQUAL\",\"participants\":[{\"userId\":$alice},{\"userId\":$bob}],
+        \"frequency\":\"MONTHLY\"}"
+recurring=$(jq -r .id <<< "$body")
+call 200 GET "/api/recurring-expenses/$recurring" "${auth[@]}"
+call 200 GET "/api/recurring-expenses/group/$group" "${auth[@]}"
+expect 'length == 1'
+call 200 GET "/api/recurring-expenses/personal/$alice" "${auth[@]}"
+call 204 DELETE "/api/recurring-expenses/$recurring" "${auth[@]}"
+
+# ActivityController, CacheStatsController, delta sync
+call 200 GET /api/activity "${auth[@]}"
+call 200 GET /api/cache/stats "${auth[@]}"
+call 200 GET "/api/groups/$group/sync?since=0" "${auth[@]}"
+expect ".group != null and (.expenses | map(.id) | contains([$expense]))"
+
+wait "$stream" || true
+grep -q '^event:EXPENSE_CREATED' "$events" || { echo "FAIL no EXPENSE_CREATED on the event stream" >&2; exit 1; }
+rm -f "$events"
+
+# Teardown
+call 204 DELETE "/api/expenses/$personal" "${auth[@]}"
+call 204 DELETE "/api/expenses/$expense" "${auth[@]}"
+call 204 DELETE "/api/groups/$group/members/$bob?requestingUserId=$alice" "${auth[@]}"
+call 204 DELETE "/api/groups/$group" "${auth[@]}"
+call 200 POST /api/auth/logout "${auth[@]}" "${json[@]}" -d "{\"refreshToken\":\"$refresh_token\"}"
+call 401 GET "/api/users/$alice" "${auth[@]}"
+call 200 GET /actuator/health
+
+echo "smoke: $checks checks passed against $BASE_URL"
@@ -0,0 +1,113 @@
+package com.splitwise.splitwiseclone.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements prepared on the current thread within a scope
+ * opened by begin(). Fed by StatementCountingDataSource, so Hibernate's and
+ * JdbcTemplate's statements are both counted; statements issued outside any
+ * scope are not tracked.
+ * <p>
+ * Scopes nest (a statement counts towards every open scope), so a test can
+ * measure a block while the request filter measures the whole request.
+ * Prepared statements carry ? placeholders, so the same statement with
+ * different parameters is recorded under one key.
+ */
+@Component
+public class JdbcStatementCounter {
+
+    /** Distinct statements remembered per scope; further ones are only counted. */
+    private static final int MAX_DISTINCT_STATEMENTS = 500;
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    /**
+     * Opens a counting scope on the current thread. Close it on the same
+     * thread, typically with try-with-resources.
+     *
+     * @return The new scope
+     */
+    public Scope begin() {
+        Scope scope = new Scope(current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Counts a statement towards every scope open on the current thread.
+     *
+     * @param sql The statement's SQL
+     */
+    public void record(String sql) {
+        for (Scope scope = current.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+    }
+
+    /**
+     * Statements seen between begin() and close().
+     */
+    public final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements.size() < MAX_DISTINCT_STATEMENTS || statements.containsKey(sql)) {
+                statements.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * Number of statements prepared in this scope.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Each distinct SQL string with the number of times it was prepared,
+         * in order of first use.
+         */
+        public Map<String, Integer> getStatements() {
+            return Collections.unmodifiableMap(statements);
+        }
+
+        /**
+         * Statements prepared at least threshold times, i.e. the same query run
+         * with different parameters - the signature of an N+1 loop.
+         *
+         * @param threshold Minimum number of executions
+         * @return SQL to execution count
+         */
+        public Map<String, Integer> getRepeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((sql, times) -> {
+                if (times >= threshold) {
+                    repeated.put(sql, times);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (current.get() == this) {
+                if (parent == null) {
+                    current.remove();
+                } else {
+                    current.set(parent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.splitwise.splitwiseclone.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many JDBC statements each request issued, per endpoint, as the
+ * splitwise.http.jdbc.statements distribution, and warns about requests that
+ * exceed their statement budget or repeat the same statement (N+1 loops).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final JdbcStatementCounter statementCounter;
+    private final JdbcStatementProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Long> lastWarnings = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        JdbcStatementCounter.Scope scope = statementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            record(request.getMethod(), uri, scope);
+        }
+    }
+
+    private void record(String method, String uri, JdbcStatementCounter.Scope scope) {
+        DistributionSummary.builder("splitwise.http.jdbc.statements")
+                .description("JDBC statements issued per HTTP request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100, 500)
+                .register(meterRegistry)
+                .record(scope.getCount());
+
+        String endpoint = method + " " + uri;
+        int budget = properties.budgetFor(endpoint);
+        if (scope.getCount() > budget) {
+            meterRegistry.counter("splitwise.http.jdbc.budget.exceeded", "method", method, "uri", uri).increment();
+            if (shouldWarn(endpoint)) {
+                log.warn("JDBC statement budget exceeded: {} issued {} statements (budget {})",
+                        endpoint, scope.getCount(), budget);
+            }
+        }
+
+        scope.getRepeatedStatements(properties.getRepeatThreshold()).forEach((sql, times) -> {
+            meterRegistry.counter("splitwise.http.jdbc.repeated", "method", method, "uri", uri).increment();
+            if (shouldWarn(endpoint + "|" + sql)) {
+                log.warn("Possible N+1 query: {} ran the same statement {} times: {}", endpoint, times,
+                        sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql);
+            }
+        });
+    }
+
+    private boolean shouldWarn(String key) {
+        long now = System.currentTimeMillis();
+        Long previous = lastWarnings.get(key);
+        if (previous != null && now - previous < properties.getLogIntervalMs()) {
+            return false;
+        }
+        lastWarnings.put(key, now);
+        return true;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,41 @@
+package com.splitwise.splitwiseclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request JDBC statement budget and N+1 detection
+ * (app.jdbc.statements.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.jdbc.statements")
+public class JdbcStatementProperties {
+
+    /**
+     * Statements a request may issue before it is logged as over budget.
+     */
+    private int budget = 40;
+
+    /**
+     * Budgets for specific endpoints, keyed "METHOD /uri/{template}".
+     */
+    private Map<String, Integer> endpointBudgets = new HashMap<>();
+
+    /**
+     * A statement prepared this many times in one request is reported as a
+     * likely N+1 query.
+     */
+    private int repeatThreshold = 5;
+
+    /**
+     * Minimum time between two warnings for the same endpoint and finding.
+     */
+    private long logIntervalMs = 60000;
+
+    public int budgetFor(String endpoint) {
+        return endpointBudgets.getOrDefault(endpoint, budget);
+    }
+}
@@ -0,0 +1,97 @@
+package com.splitwise.splitwiseclone.config;
+
+import com.splitwise.splitwiseclone.event.GroupEventBroadcaster;
+import com.splitwise.splitwiseclone.service.BalancePipelineService;
+import com.splitwise.splitwiseclone.service.GroupMembershipIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Application metrics beyond what Spring Boot instruments on its own
+ * (HTTP server requests, JVM, connection pools, Hibernate and its caches).
+ */
+@Configuration
+@EnableConfigurationProperties(JdbcStatementProperties.class)
+public class MetricsConfig {
+
+    /** Wraps the primary DataSource, so statements from Hibernate and JdbcTemplate are counted alike */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(
+            ObjectProvider<JdbcStatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new StatementCountingDataSource(dataSource, statementCounter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder balancePipelineMetrics(BalancePipelineService balancePipelineService) {
+        return registry -> {
+            // Both read the snapshot of the last sweep: scrapes never query the outbox
+            Gauge.builder("splitwise.balances.pipeline.pending", balancePipelineService,
+                    pipeline -> pipeline.getLastSweepStats().getPendingEntries())
+                    .description("Balance outbox entries not yet applied, as of the last sweep")
+                    .register(registry);
+            Gauge.builder("splitwise.balances.pipeline.lag", balancePipelineService,
+                    pipeline -> pipeline.getLastSweepStats().getMaxLagMs())
+                    .description("Age of the oldest unapplied balance outbox entry, as of the last sweep")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            FunctionCounter.builder("splitwise.balances.pipeline.applied", balancePipelineService,
+                    BalancePipelineService::getAppliedEntries)
+                    .register(registry);
+            FunctionCounter.builder("splitwise.balances.pipeline.failed.batches", balancePipelineService,
+                    BalancePipelineService::getFailedBatches)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder groupMetrics(GroupEventBroadcaster broadcaster, GroupMembershipIndex membershipIndex) {
+        return registry -> {
+            Gauge.builder("splitwise.sse.subscribers", broadcaster, GroupEventBroadcaster::getSubscriberCount)
+                    .description("Open group event streams")
+                    .register(registry);
+            Gauge.builder("splitwise.membership.index.groups", membershipIndex, GroupMembershipIndex::size)
+                    .description("Groups held in the in-memory membership index")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        return registry -> routingDataSource.ifAvailable(router -> {
+            FunctionCounter.builder("splitwise.datasource.connections", router,
+                    ReplicaRoutingDataSource::getPrimaryConnections)
+                    .tag("target", "primary")
+                    .register(registry);
+            FunctionCounter.builder("splitwise.datasource.connections", router,
+                    ReplicaRoutingDataSource::getReplicaConnections)
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("splitwise.datasource.replica.failures", router,
+                    ReplicaRoutingDataSource::getReplicaFailures)
+                    .register(registry);
+            Gauge.builder("splitwise.datasource.replicas.healthy", router,
+                    ReplicaRoutingDataSource::getHealthyReplicaCount)
+                    .register(registry);
+            Gauge.builder("splitwise.datasource.sticky.users", router,
+                    ReplicaRoutingDataSource::getTrackedUserCount)
+                    .description("Users kept on the primary after a recent write")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.splitwise.splitwiseclone.config;
+
+import com.splitwise.splitwiseclone.SplitwiseCloneApplication;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import jakarta.persistence.Entity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime hints for the GraalVM native image ({@code mvn -Pnative package}).
+ * Spring AOT derives most hints from the bean definitions; these cover what
+ * it cannot see: bodies of {@code ResponseEntity<?>} handlers and SSE events,
+ * DTOs built by JPQL constructor expressions, and libraries that load their
+ * implementation classes by name.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.ApplicationRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String BASE_PACKAGE = SplitwiseCloneApplication.class.getPackageName();
+
+        /** jjwt-api instantiates jjwt-impl reflectively and finds jjwt-jackson through the ServiceLoader */
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entities are read by Hibernate and also returned as JSON; their Lombok
+            // accessors and no-arg constructors are plain members of the class
+            for (Class<?> entity : scan(classLoader, BASE_PACKAGE + ".entity", new AnnotationTypeFilter(Entity.class))) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+                bindingHints.registerReflectionHints(hints.reflection(), entity);
+            }
+            // Request and response bodies, plus the projections Hibernate instantiates
+            for (Class<?> dto : scan(classLoader, BASE_PACKAGE + ".dto", (reader, factory) -> true)) {
+                hints.reflection().registerType(dto, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+                bindingHints.registerReflectionHints(hints.reflection(), dto);
+            }
+            bindingHints.registerReflectionHints(hints.reflection(), GroupChangeEvent.class);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            hints.reflection().registerType(BCryptPasswordEncoder.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Referenced by a Hibernate property, so Spring does not see it as a resource
+            hints.resources().registerPattern("ehcache.xml");
+        }
+
+        private static List<Class<?>> scan(ClassLoader classLoader, String basePackage, TypeFilter filter) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+            scanner.addIncludeFilter(filter);
+            List<Class<?>> types = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return types;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.splitwise.splitwiseclone.config;
+
+import com.splitwise.splitwiseclone.enums.OutboxStatus;
+import com.splitwise.splitwiseclone.repository.OutboxEventRepository;
+import com.splitwise.splitwiseclone.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the outbox: GET /actuator/outbox counts pending and
+ * dead events, POST /actuator/outbox requeues the dead ones. Served on the
+ * management port in production.
+ */
+@Component
+@Endpoint(id = "outbox")
+@RequiredArgsConstructor
+public class OutboxEndpoint {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayService outboxRelayService;
+
+    @ReadOperation
+    public Map<String, Long> counts() {
+        return Map.of(
+                "pending", outboxEventRepository.countByStatus(OutboxStatus.PENDING),
+                "dead", outboxEventRepository.countByStatus(OutboxStatus.DEAD));
+    }
+
+    @WriteOperation
+    public Map<String, Integer> requeueDead() {
+        return Map.of("requeued", outboxRelayService.requeueDead());
+    }
+}
@@ -0,0 +1,182 @@
+package com.splitwise.splitwiseclone.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends connections of read-only transactions to replica pools (round-robin)
+ * and everything else to the primary. A replica that fails to hand out a
+ * connection is skipped for a cooldown period, and reads fall back to the
+ * primary when no replica is healthy. Users who wrote recently are kept on
+ * the primary so they read their own writes; their write times are pruned
+ * once they are older than the sticky window, so the map only holds users
+ * active within the last window.
+ * <p>
+ * Must be wrapped in a LazyConnectionDataSourceProxy so that the transaction's
+ * read-only flag is known by the time a physical connection is requested.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long stickyPrimaryMs;
+    private final long failureCooldownMs;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLongArray replicaDownUntil;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicLong nextPruneAt = new AtomicLong();
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong replicaFailures = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long stickyPrimaryMs,
+            long failureCooldownMs) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.stickyPrimaryMs = stickyPrimaryMs;
+        this.failureCooldownMs = failureCooldownMs;
+        this.replicaDownUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(username, password);
+    }
+
+    private Connection route(String username, String password) throws SQLException {
+        Long userId = currentUserId();
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (!readOnly) {
+            if (userId != null) {
+                long now = System.currentTimeMillis();
+                lastWriteByUser.put(userId, now);
+                pruneLastWrites(now);
+            }
+            return fromPrimary(username, password);
+        }
+        if (userId != null && isStickyToPrimary(userId)) {
+            return fromPrimary(username, password);
+        }
+
+        long now = System.currentTimeMillis();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int index = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+            if (replicaDownUntil.get(index) > now) {
+                continue;
+            }
+            try {
+                DataSource replica = replicas.get(index);
+                Connection connection = username == null
+                        ? replica.getConnection()
+                        : replica.getConnection(username, password);
+                replicaConnections.incrementAndGet();
+                log.debug("Routing read-only connection to replica {}", index);
+                return connection;
+            } catch (SQLException e) {
+                replicaFailures.incrementAndGet();
+                replicaDownUntil.set(index, now + failureCooldownMs);
+                log.warn("Replica {} unavailable, skipping it for {} ms: {}", index, failureCooldownMs, e.getMessage());
+            }
+        }
+        return fromPrimary(username, password);
+    }
+
+    private Connection fromPrimary(String username, String password) throws SQLException {
+        primaryConnections.incrementAndGet();
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    private boolean isStickyToPrimary(Long userId) {
+        Long lastWrite = lastWriteByUser.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < stickyPrimaryMs) {
+            return true;
+        }
+        lastWriteByUser.remove(userId, lastWrite);
+        return false;
+    }
+
+    /** At most once per sticky window, drops write times that no longer keep a user on the primary */
+    private void pruneLastWrites(long now) {
+        long pruneAt = nextPruneAt.get();
+        if (now < pruneAt || !nextPruneAt.compareAndSet(pruneAt, now + stickyPrimaryMs)) {
+            return;
+        }
+        long expiredBefore = now - stickyPrimaryMs;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite <= expiredBefore);
+    }
+
+    public int getTrackedUserCount() {
+        return lastWriteByUser.size();
+    }
+
+    private Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object userId = attributes.getAttribute("userId", RequestAttributes.SCOPE_REQUEST);
+        return userId instanceof Long ? (Long) userId : null;
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+
+    public long getReplicaFailures() {
+        return replicaFailures.get();
+    }
+
+    public int getHealthyReplicaCount() {
+        long now = System.currentTimeMillis();
+        int healthy = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            if (replicaDownUntil.get(i) <= now) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.splitwise.splitwiseclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for routing read-only transactions to replicas
+ * (app.datasource.routing.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+
+    /**
+     * After a user writes, their reads stay on the primary for this long so
+     * they see their own changes despite replication lag.
+     */
+    private long stickyPrimaryMs = 2000;
+
+    /**
+     * How long a replica that failed to hand out a connection is skipped.
+     */
+    private long failureCooldownMs = 30000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
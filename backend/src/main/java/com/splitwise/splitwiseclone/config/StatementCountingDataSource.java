@@ -0,0 +1,99 @@
+package com.splitwise.splitwiseclone.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Reports every statement prepared on the application's connections to the
+ * JdbcStatementCounter, whether it comes from Hibernate or from JdbcTemplate
+ * (batch inserts, archive and purge jobs). A JDBC batch is one statement, as
+ * Hibernate's own batches are. Installed around the primary DataSource by
+ * MetricsConfig.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final JdbcStatementCounter statementCounter;
+
+    public StatementCountingDataSource(DataSource targetDataSource, JdbcStatementCounter statementCounter) {
+        super(targetDataSource);
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /** Lets the container close the wrapped pool on shutdown */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            if (PREPARE_METHODS.contains(method.getName()) && args[0] instanceof String sql) {
+                statementCounter.record(sql);
+            }
+            Object result = method.invoke(connection, args);
+            if (method.getName().equals("createStatement")) {
+                return countingStatement((Statement) result);
+            }
+            return result;
+        });
+    }
+
+    /** Plain statements get their SQL at execution time */
+    private Statement countingStatement(Statement statement) {
+        return proxy(Statement.class, (method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args.length > 0
+                    && args[0] instanceof String sql) {
+                statementCounter.record(sql);
+            }
+            return method.invoke(statement, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            // Identity, not the target's: pools and transaction holders compare connections
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,48 @@
+package com.splitwise.splitwiseclone.controller;
+
+import com.splitwise.splitwiseclone.dto.ActivityPage;
+import com.splitwise.splitwiseclone.service.ActivityFeedService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST Controller for the authenticated user's activity feed
+ */
+@RestController
+@RequestMapping("/api/activity")
+@RequiredArgsConstructor
+public class ActivityController {
+
+    private final ActivityFeedService activityFeedService;
+
+    /**
+     * Retrieves a page of recent activity, newest first.
+     *
+     * @param before      Cursor from the previous page's nextCursor; omit for
+     *                    the newest page
+     * @param limit       Page size (at most 100)
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return The page of activities and the cursor of the next one
+     */
+    @GetMapping
+    public ResponseEntity<?> getActivity(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        ActivityPage page = activityFeedService.getFeed(userId, before, limit);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -1,13 +1,16 @@
 package com.splitwise.splitwiseclone.controller;
 
+import com.splitwise.splitwiseclone.dto.AuthTokens;
 import com.splitwise.splitwiseclone.dto.ForgotPasswordRequest;
 import com.splitwise.splitwiseclone.dto.LoginRequest;
 import com.splitwise.splitwiseclone.dto.LoginResponse;
 import com.splitwise.splitwiseclone.dto.ResetPasswordRequest;
+import com.splitwise.splitwiseclone.dto.RefreshTokenRequest;
 import com.splitwise.splitwiseclone.dto.RegisterUserRequest;
 import com.splitwise.splitwiseclone.entity.User;
-import com.splitwise.splitwiseclone.security.JwtUtils;
+import com.splitwise.splitwiseclone.service.AuthTokenService;
 import com.splitwise.splitwiseclone.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,7 +25,7 @@ import java.util.Map;
 public class AuthController {
 
     private final UserService userService;
-    private final JwtUtils jwtUtils;
+    private final AuthTokenService authTokenService;
 
     /**
      * Authenticates a user and returns a JWT token.
@@ -34,14 +37,15 @@ public class AuthController {
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
         if (userService.validatePassword(request.getEmail(), request.getPassword())) {
             User user = userService.getUserByEmail(request.getEmail()).get();
-            String token = jwtUtils.generateToken(user.getEmail(), user.getId());
+            AuthTokens tokens = authTokenService.issueTokens(user);
 
             return ResponseEntity.ok(LoginResponse.builder()
                     .id(user.getId())
                     .email(user.getEmail())
                     .name(user.getName())
                     .message("Login successful")
-                    .token(token)
+                    .token(tokens.getAccessToken())
+                    .refreshToken(tokens.getRefreshToken())
                     .build());
         } else {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid email or password"));
@@ -64,20 +68,71 @@ public class AuthController {
                     request.getPassword(),
                     request.getName());
 
-            String token = jwtUtils.generateToken(user.getEmail(), user.getId());
+            AuthTokens tokens = authTokenService.issueTokens(user);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(LoginResponse.builder()
                     .id(user.getId())
                     .email(user.getEmail())
                     .name(user.getName())
                     .message("Registration successful")
-                    .token(token)
+                    .token(tokens.getAccessToken())
+                    .refreshToken(tokens.getRefreshToken())
                     .build());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. The
+     * refresh token can only be used once.
+     *
+     * @param request The refresh request containing the refresh token
+     * @return A ResponseEntity containing the login response with the new tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            AuthTokens tokens = authTokenService.refresh(request.getRefreshToken());
+            User user = userService.getUserById(tokens.getUserId()).orElseThrow();
+
+            return ResponseEntity.ok(LoginResponse.builder()
+                    .id(user.getId())
+                    .email(user.getEmail())
+                    .name(user.getName())
+                    .message("Token refreshed")
+                    .token(tokens.getAccessToken())
+                    .refreshToken(tokens.getRefreshToken())
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Logs the current session out by revoking its access token and, if
+     * given, its refresh token.
+     *
+     * @param request       Optional body with the session's refresh token
+     * @param authorization The Authorization header carrying the access token
+     * @param httpRequest   The HTTP request
+     * @return A ResponseEntity with a success message
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null || authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        authTokenService.logout(authorization.substring(7),
+                request != null ? request.getRefreshToken() : null, userId);
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
     /**
      * Initiates the password reset process by generating a token.
      *
@@ -1,13 +1,25 @@
 package com.splitwise.splitwiseclone.controller;
 
+import com.splitwise.splitwiseclone.dto.BalancePipelineStats;
+import com.splitwise.splitwiseclone.dto.BatchSettlementRequest;
+import com.splitwise.splitwiseclone.dto.SettlementSummary;
 import com.splitwise.splitwiseclone.entity.Settlement;
+import com.splitwise.splitwiseclone.service.BalancePipelineService;
 import com.splitwise.splitwiseclone.service.BalanceService;
+import com.splitwise.splitwiseclone.service.GroupVersionService;
+import com.splitwise.splitwiseclone.service.IdempotencyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +32,9 @@ import java.util.Map;
 public class BalanceController {
 
     private final BalanceService balanceService;
+    private final BalancePipelineService balancePipelineService;
+    private final GroupVersionService groupVersionService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Retrieves all balances involving a specific user across all groups.
@@ -47,26 +62,46 @@ public class BalanceController {
     }
 
     /**
-     * Retrieves balances specific to a group.
+     * Retrieves balances specific to a group. When minToken is given (the
+     * X-Balance-Token of an earlier write), waits up to waitMs for the async
+     * balance writer to apply it before reading.
      *
-     * @param groupId The ID of the group
-     * @return A list of BalanceResponse DTOs within the group
+     * @param groupId     The ID of the group
+     * @param minToken    Optional read-your-writes token
+     * @param waitMs      Maximum time to wait for the token in milliseconds
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @return A list of BalanceResponse DTOs within the group, or 304 if unchanged
      */
     @GetMapping("/group/{groupId}")
     public ResponseEntity<List<com.splitwise.splitwiseclone.dto.BalanceResponse>> getGroupBalances(
-            @PathVariable Long groupId) {
+            @PathVariable Long groupId,
+            @RequestParam(required = false) Long minToken,
+            @RequestParam(defaultValue = "2000") long waitMs,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (minToken != null && !balancePipelineService.awaitApplied(groupId, minToken, Math.min(waitMs, 10000))) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(ExpenseController.BALANCE_TOKEN_HEADER, minToken.toString())
+                    .build();
+        }
+        String eTag = groupVersionService.eTag(groupId, "balances");
+        if (groupVersionService.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         List<com.splitwise.splitwiseclone.dto.BalanceResponse> balances = balanceService.getGroupBalances(groupId);
-        return ResponseEntity.ok(balances);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(balances);
     }
 
     /**
-     * Records a settlement payment between two users.
+     * Records a settlement payment between two users. Retries carrying the
+     * same Idempotency-Key get the original response back.
      *
-     * @param fromUserId The user making the payment
-     * @param toUserId   The user receiving the payment
-     * @param amount     The amount settled
-     * @param currency   The currency of the settlement
-     * @param groupId    Optional group ID associated with the settlement
+     * @param fromUserId     The user making the payment
+     * @param toUserId       The user receiving the payment
+     * @param amount         The amount settled
+     * @param currency       The currency of the settlement
+     * @param groupId        Optional group ID associated with the settlement
+     * @param idempotencyKey Optional client generated key identifying the request
+     * @param httpRequest    The HTTP request (used to scope the key to the user)
      * @return The created Settlement entity
      */
     @PostMapping("/settle")
@@ -75,24 +110,115 @@ public class BalanceController {
             @RequestParam Long toUserId,
             @RequestParam BigDecimal amount,
             @RequestParam String currency,
-            @RequestParam(required = false) Long groupId) {
-        try {
-            Settlement settlement = balanceService.settleBalance(fromUserId, toUserId, amount, currency, groupId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(settlement);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            @RequestParam(required = false) Long groupId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        String scope = "settle:" + httpRequest.getAttribute("userId");
+        List<Object> fingerprint = Arrays.asList(fromUserId, toUserId, amount, currency, groupId);
+        return idempotencyService.execute(scope, idempotencyKey, fingerprint, () -> {
+            try {
+                Settlement settlement = balanceService.settleBalance(fromUserId, toUserId, amount, currency, groupId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(settlement);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        });
+    }
+
+    /**
+     * Settles every balance between two users across all groups, in one
+     * transaction. The debtor of each balance pays it in full.
+     *
+     * @param userId         One of the users
+     * @param otherUserId    The other user
+     * @param idempotencyKey Optional client generated key identifying the request
+     * @param httpRequest    The HTTP request (used to retrieve authenticated user ID)
+     * @return The created Settlement entities
+     */
+    @PostMapping("/settle/all")
+    public ResponseEntity<?> settleAllBetween(
+            @RequestParam Long userId,
+            @RequestParam Long otherUserId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        Long requestingUserId = (Long) httpRequest.getAttribute("userId");
+        if (requestingUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
         }
+        String scope = "settle:" + requestingUserId;
+        List<Object> fingerprint = Arrays.asList("all", userId, otherUserId);
+        return idempotencyService.execute(scope, idempotencyKey, fingerprint, () -> {
+            try {
+                List<Settlement> settlements = balanceService.settleAllBetween(userId, otherUserId, requestingUserId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(settlements);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            } catch (SecurityException e) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "A balance changed concurrently, please retry"));
+            }
+        });
+    }
+
+    /**
+     * Records a list of settlements in one transaction: either all of them
+     * are applied or none is.
+     *
+     * @param request        The settlements to record
+     * @param idempotencyKey Optional client generated key identifying the request
+     * @param httpRequest    The HTTP request (used to retrieve authenticated user ID)
+     * @return The created Settlement entities, in request order
+     */
+    @PostMapping("/settle/batch")
+    public ResponseEntity<?> settleBatch(
+            @Valid @RequestBody BatchSettlementRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        Long requestingUserId = (Long) httpRequest.getAttribute("userId");
+        if (requestingUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        String scope = "settle:" + requestingUserId;
+        return idempotencyService.execute(scope, idempotencyKey, request, () -> {
+            try {
+                List<Settlement> settlements = balanceService.settleBatch(request.getSettlements(), requestingUserId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(settlements);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            } catch (SecurityException e) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "A balance changed concurrently, please retry"));
+            }
+        });
     }
 
     /**
      * Retrieves the settlement history for a user.
      *
      * @param userId The ID of the user
-     * @return A list of Settlement entities involving the user
+     * @return A list of settlement summaries involving the user
      */
     @GetMapping("/settlements/user/{userId}")
-    public ResponseEntity<List<Settlement>> getUserSettlements(@PathVariable Long userId) {
-        List<Settlement> settlements = balanceService.getUserSettlements(userId);
+    public ResponseEntity<List<SettlementSummary>> getUserSettlements(@PathVariable Long userId) {
+        List<SettlementSummary> settlements = balanceService.getUserSettlements(userId);
         return ResponseEntity.ok(settlements);
     }
+
+    /**
+     * Reports lag of the asynchronous balance pipeline.
+     *
+     * @return Pending entries, per-group lag and throughput counters
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<BalancePipelineStats> getPipelineStats() {
+        return ResponseEntity.ok(balancePipelineService.getStats());
+    }
 }
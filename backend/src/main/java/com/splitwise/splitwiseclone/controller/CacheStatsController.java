@@ -0,0 +1,32 @@
+package com.splitwise.splitwiseclone.controller;
+
+import com.splitwise.splitwiseclone.dto.CacheRegionStats;
+import com.splitwise.splitwiseclone.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing second-level cache statistics
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    /**
+     * Retrieves hit ratios for every Hibernate cache region.
+     *
+     * @return A list of per-region statistics
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getRegionStats());
+    }
+}
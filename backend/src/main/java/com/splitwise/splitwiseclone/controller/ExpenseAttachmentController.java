@@ -0,0 +1,273 @@
+package com.splitwise.splitwiseclone.controller;
+
+import com.splitwise.splitwiseclone.entity.ExpenseAttachment;
+import com.splitwise.splitwiseclone.service.AttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * REST Controller for receipt attachments on expenses.
+ * <p>
+ * Uploads are the raw request body (the file's own Content-Type, name in the
+ * {@code fileName} parameter) and are streamed straight to storage. Content
+ * is served with a strong ETag (the SHA-256 of the bytes) and supports single
+ * byte ranges; the bytes go out through Tomcat's sendfile when the connector
+ * supports it, otherwise through {@link FileChannel#transferTo}.
+ */
+@RestController
+@RequestMapping("/api/expenses/{expenseId}/attachments")
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseAttachmentController {
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AttachmentService attachmentService;
+
+    /**
+     * Uploads an attachment.
+     *
+     * @param expenseId   The ID of the expense
+     * @param fileName    Original file name
+     * @param contentType Content-Type of the body
+     * @param httpRequest The HTTP request, whose body is the file
+     * @return The created attachment
+     */
+    @PostMapping
+    public ResponseEntity<?> upload(
+            @PathVariable Long expenseId,
+            @RequestParam(required = false) String fileName,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest httpRequest) throws IOException {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        try {
+            ExpenseAttachment attachment = attachmentService.upload(expenseId, userId, fileName, contentType,
+                    httpRequest.getInputStream());
+            return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Lists the attachments of an expense.
+     *
+     * @param expenseId   The ID of the expense
+     * @param httpRequest The HTTP request
+     * @return The attachments
+     */
+    @GetMapping
+    public ResponseEntity<?> getAttachments(@PathVariable Long expenseId, HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        try {
+            List<ExpenseAttachment> attachments = attachmentService.getAttachments(expenseId, userId);
+            return ResponseEntity.ok(attachments);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Downloads an attachment's content, whole or as a single byte range.
+     *
+     * @param expenseId    The ID of the expense
+     * @param attachmentId The ID of the attachment
+     * @param httpRequest  The HTTP request
+     * @param httpResponse The HTTP response the content is written to
+     */
+    @GetMapping("/{attachmentId}/content")
+    public void download(
+            @PathVariable Long expenseId,
+            @PathVariable Long attachmentId,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            httpResponse.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        ExpenseAttachment attachment;
+        try {
+            attachment = attachmentService.getAttachment(expenseId, attachmentId, userId);
+        } catch (IllegalArgumentException e) {
+            httpResponse.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        } catch (SecurityException e) {
+            httpResponse.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        long size = attachment.getSize();
+        String eTag = "\"" + attachment.getContentHash() + "\"";
+        httpResponse.setHeader(HttpHeaders.ETAG, eTag);
+        httpResponse.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Content under an id never changes
+        httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        if (matches(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            httpResponse.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        httpResponse.setContentType(attachment.getContentType());
+        String fileName = attachment.getFileName();
+        ContentDisposition.Builder disposition = ContentDisposition.inline();
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)) {
+            disposition.filename(fileName);
+        } else {
+            disposition.filename(fileName, StandardCharsets.UTF_8);
+        }
+        httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+
+        long start = 0;
+        long end = size; // Exclusive
+        String range = httpRequest.getHeader(HttpHeaders.RANGE);
+        String ifRange = httpRequest.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                httpResponse.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                httpResponse.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                httpResponse.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                httpResponse.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+        httpResponse.setContentLengthLong(end - start);
+
+        if ("HEAD".equals(httpRequest.getMethod())) {
+            return;
+        }
+        Path path = attachmentService.contentPath(attachment);
+        if (Boolean.TRUE.equals(httpRequest.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat copies the file to the socket itself after this method returns
+            httpRequest.setAttribute(SENDFILE_FILENAME, path.toString());
+            httpRequest.setAttribute(SENDFILE_START, start);
+            httpRequest.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(httpResponse.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        } catch (NoSuchFileException e) {
+            log.error("Content {} of attachment {} is missing", attachment.getContentHash(), attachmentId);
+            httpResponse.reset();
+            httpResponse.sendError(HttpStatus.NOT_FOUND.value());
+        }
+    }
+
+    /**
+     * Deletes an attachment.
+     *
+     * @param expenseId    The ID of the expense
+     * @param attachmentId The ID of the attachment
+     * @param httpRequest  The HTTP request
+     * @return A 204 No Content response if successful
+     */
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<?> deleteAttachment(
+            @PathVariable Long expenseId,
+            @PathVariable Long attachmentId,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        try {
+            attachmentService.deleteAttachment(expenseId, attachmentId, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a Range header.
+     *
+     * @return {start, end exclusive} for a satisfiable single range, an empty
+     *         array to ignore the header (multiple or malformed ranges are
+     *         answered with the full content), or null if unsatisfiable
+     */
+    private static long[] parseRange(String header, long size) {
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return new long[0];
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                // Suffix range: the last n bytes
+                long length = Long.parseLong(matcher.group(2));
+                return length == 0 ? null : new long[] { Math.max(0, size - length), size };
+            }
+            long start = Long.parseLong(matcher.group(1));
+            long last = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+            if (start >= size) {
+                return null;
+            }
+            return start > last ? new long[0] : new long[] { start, last + 1 };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.splitwise.splitwiseclone.controller;
 
 import com.splitwise.splitwiseclone.dto.CreateExpenseRequest;
+import com.splitwise.splitwiseclone.dto.ExpenseDetailPage;
+import com.splitwise.splitwiseclone.dto.ExpenseSplitSummary;
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
 import com.splitwise.splitwiseclone.dto.UpdateExpenseRequest;
 import com.splitwise.splitwiseclone.entity.Expense;
-import com.splitwise.splitwiseclone.entity.ExpenseSplit;
 import com.splitwise.splitwiseclone.service.ExpenseService;
+import com.splitwise.splitwiseclone.service.GroupService;
+import com.splitwise.splitwiseclone.service.GroupVersionService;
+import com.splitwise.splitwiseclone.service.IdempotencyService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,30 +31,55 @@ import java.util.Map;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final GroupService groupService;
+    private final GroupVersionService groupVersionService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Creates a new expense.
+     * Response header carrying the read-your-writes token when balances are
+     * applied asynchronously
+     */
+    public static final String BALANCE_TOKEN_HEADER = "X-Balance-Token";
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Deepest row a details page may reach; archived groups read that many rows per tier
+    private static final long MAX_PAGE_END = 10_000;
+
+    /**
+     * Creates a new expense. Retries carrying the same Idempotency-Key get the
+     * original response back instead of creating a duplicate.
      *
-     * @param request The request DTO containing expense details
+     * @param request        The request DTO containing expense details
+     * @param idempotencyKey Optional client generated key identifying the request
+     * @param httpRequest    The HTTP request (used to scope the key to the user)
      * @return The created Expense entity
      */
     @PostMapping
-    public ResponseEntity<Expense> createExpense(@Valid @RequestBody CreateExpenseRequest request) {
-        try {
-            Expense expense = expenseService.createExpense(
-                    request.getAmount(),
-                    request.getDescription(),
-                    request.getCategory(),
-                    request.getCurrency(),
-                    request.getPaidBy(),
-                    request.getGroupId(),
-                    request.getSplitType(),
-                    request.getParticipants(),
-                    request.getExpenseDate());
-            return ResponseEntity.status(HttpStatus.CREATED).body(expense);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<Expense> createExpense(
+            @Valid @RequestBody CreateExpenseRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        String scope = "expenses:" + httpRequest.getAttribute("userId");
+        return idempotencyService.execute(scope, idempotencyKey, request, () -> {
+            try {
+                Expense expense = expenseService.createExpense(
+                        request.getAmount(),
+                        request.getDescription(),
+                        request.getCategory(),
+                        request.getCurrency(),
+                        request.getPaidBy(),
+                        request.getGroupId(),
+                        request.getSplitType(),
+                        request.getParticipants(),
+                        request.getExpenseDate());
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .headers(balanceTokenHeader(expense))
+                        .body(expense);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
 
     /**
@@ -79,7 +111,7 @@ public class ExpenseController {
                     request.getSplitType(),
                     request.getParticipants(),
                     request.getExpenseDate());
-            return ResponseEntity.ok(expense);
+            return ResponseEntity.ok().headers(balanceTokenHeader(expense)).body(expense);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (SecurityException e) {
@@ -107,24 +139,70 @@ public class ExpenseController {
     /**
      * Retrieves all expenses associated with a group.
      *
-     * @param groupId The ID of the group
-     * @return A list of Expense entities
+     * @param groupId     The ID of the group
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @return A list of expense summaries, or 304 if the group has not changed
      */
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<Expense>> getGroupExpenses(@PathVariable Long groupId) {
-        List<Expense> expenses = expenseService.getGroupExpenses(groupId);
-        return ResponseEntity.ok(expenses);
+    public ResponseEntity<List<ExpenseSummary>> getGroupExpenses(
+            @PathVariable Long groupId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = groupVersionService.eTag(groupId, "expenses");
+        if (groupVersionService.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        List<ExpenseSummary> expenses = expenseService.getGroupExpenses(groupId);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(expenses);
+    }
+
+    /**
+     * Retrieves a page of a group's expenses with their splits embedded, so a
+     * list showing who owes what needs no request per expense.
+     *
+     * @param groupId     The ID of the group
+     * @param page        Zero-based page number
+     * @param size        Page size (at most 200, and (page + 1) * size at most 10000)
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return The page, or 304 if the group has not changed
+     */
+    @GetMapping("/group/{groupId}/details")
+    public ResponseEntity<?> getGroupExpenseDetails(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (page + 1L) * size > MAX_PAGE_END) {
+            return ResponseEntity.badRequest().body(Map.of("message", "page must be >= 0, size between 1 and "
+                    + MAX_PAGE_SIZE + " and (page + 1) * size at most " + MAX_PAGE_END));
+        }
+        if (!groupService.isUserMemberOfGroup(userId, groupId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "You are not a member of this group"));
+        }
+        String eTag = groupVersionService.eTag(groupId, "expense-details-" + page + "-" + size);
+        if (groupVersionService.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        ExpenseDetailPage details = expenseService.getGroupExpenseDetails(groupId, page, size);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(details);
     }
 
     /**
      * Retrieves all personal (non-group) expenses for a user.
      *
      * @param userId The ID of the user
-     * @return A list of Expense entities
+     * @return A list of expense summaries
      */
     @GetMapping("/personal/{userId}")
-    public ResponseEntity<List<Expense>> getPersonalExpenses(@PathVariable Long userId) {
-        List<Expense> expenses = expenseService.getPersonalExpenses(userId);
+    public ResponseEntity<List<ExpenseSummary>> getPersonalExpenses(@PathVariable Long userId) {
+        List<ExpenseSummary> expenses = expenseService.getPersonalExpenses(userId);
         return ResponseEntity.ok(expenses);
     }
 
@@ -132,11 +210,11 @@ public class ExpenseController {
      * Retrieves the splits for a specific expense.
      *
      * @param id The ID of the expense
-     * @return A list of ExpenseSplit entities
+     * @return A list of split summaries
      */
     @GetMapping("/{id}/splits")
-    public ResponseEntity<List<ExpenseSplit>> getExpenseSplits(@PathVariable Long id) {
-        List<ExpenseSplit> splits = expenseService.getExpenseSplits(id);
+    public ResponseEntity<List<ExpenseSplitSummary>> getExpenseSplits(@PathVariable Long id) {
+        List<ExpenseSplitSummary> splits = expenseService.getExpenseSplits(id);
         return ResponseEntity.ok(splits);
     }
 
@@ -165,4 +243,12 @@ public class ExpenseController {
                     .body(Map.of("message", e.getMessage()));
         }
     }
+
+    private HttpHeaders balanceTokenHeader(Expense expense) {
+        HttpHeaders headers = new HttpHeaders();
+        if (expense.getBalanceToken() != null) {
+            headers.set(BALANCE_TOKEN_HEADER, expense.getBalanceToken().toString());
+        }
+        return headers;
+    }
 }
@@ -2,16 +2,27 @@ package com.splitwise.splitwiseclone.controller;
 
 import com.splitwise.splitwiseclone.dto.CreateGroupRequest;
 import com.splitwise.splitwiseclone.dto.GroupMemberDto;
+import com.splitwise.splitwiseclone.dto.GroupSyncResponse;
 import com.splitwise.splitwiseclone.entity.Group;
-
+import com.splitwise.splitwiseclone.event.GroupEventBroadcaster;
 import com.splitwise.splitwiseclone.service.GroupService;
+import com.splitwise.splitwiseclone.service.GroupSyncService;
+import com.splitwise.splitwiseclone.service.GroupVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for group management
@@ -22,6 +33,9 @@ import java.util.List;
 public class GroupController {
 
     private final GroupService groupService;
+    private final GroupEventBroadcaster groupEventBroadcaster;
+    private final GroupVersionService groupVersionService;
+    private final GroupSyncService groupSyncService;
 
     /**
      * Creates a new group.
@@ -41,14 +55,21 @@ public class GroupController {
     /**
      * Retrieves a group by its ID.
      *
-     * @param id The ID of the group
-     * @return The Group entity
+     * @param id          The ID of the group
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @return The Group entity, or 304 if the group has not changed
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Group> getGroupById(@PathVariable Long id) {
+    public ResponseEntity<Group> getGroupById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = groupVersionService.eTag(id, "group");
+        if (groupVersionService.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         try {
             Group group = groupService.getGroupById(id);
-            return ResponseEntity.ok(group);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(group);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -69,13 +90,76 @@ public class GroupController {
     /**
      * Retrieves all members of a specific group.
      *
-     * @param id The ID of the group
-     * @return A list of GroupMemberDto with user details
+     * @param id          The ID of the group
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @return A list of GroupMemberDto with user details, or 304 if unchanged
      */
     @GetMapping("/{id}/members")
-    public ResponseEntity<List<GroupMemberDto>> getGroupMembers(@PathVariable Long id) {
+    public ResponseEntity<List<GroupMemberDto>> getGroupMembers(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = groupVersionService.eTag(id, "members");
+        if (groupVersionService.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         List<GroupMemberDto> members = groupService.getGroupMembers(id);
-        return ResponseEntity.ok(members);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(members);
+    }
+
+    /**
+     * Streams change events (expenses and settlements) for a group as
+     * Server-Sent Events, so clients only re-fetch when something changed.
+     *
+     * @param id          The ID of the group
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return An SSE emitter that stays open until the client disconnects, or
+     *         401/403 if the user may not see the group
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGroupEvents(@PathVariable Long id, HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!groupService.isUserMemberOfGroup(userId, id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(groupEventBroadcaster.subscribe(id));
+    }
+
+    /**
+     * Retrieves what changed in a group since the client's last sync: changed
+     * expenses (with their splits), settlements, balances and members, plus
+     * tombstones for deleted ones.
+     *
+     * @param id          The ID of the group
+     * @param since       Group version from the previous sync's response
+     * @param sinceTime   Time of the previous sync, for clients without a version
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return The changes and the version to sync from next time
+     */
+    @GetMapping("/{id}/sync")
+    public ResponseEntity<?> syncGroup(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime sinceTime,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "User not authenticated"));
+        }
+        if (since != null && since < 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "since must not be negative"));
+        }
+        try {
+            GroupSyncResponse changes = groupSyncService.sync(id, since, sinceTime, userId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        }
     }
 
     /**
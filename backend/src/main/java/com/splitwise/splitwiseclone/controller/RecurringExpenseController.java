@@ -0,0 +1,116 @@
+package com.splitwise.splitwiseclone.controller;
+
+import com.splitwise.splitwiseclone.dto.CreateRecurringExpenseRequest;
+import com.splitwise.splitwiseclone.entity.RecurringExpense;
+import com.splitwise.splitwiseclone.service.RecurringExpenseService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for recurring expenses (rent, utilities, subscriptions)
+ */
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    /**
+     * Creates a recurring expense.
+     *
+     * @param request     The request DTO containing the expense and its schedule
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return The created RecurringExpense entity
+     */
+    @PostMapping
+    public ResponseEntity<?> createRecurringExpense(
+            @Valid @RequestBody CreateRecurringExpenseRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            Long userId = (Long) httpRequest.getAttribute("userId");
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("message", "User not authenticated"));
+            }
+
+            RecurringExpense recurring = recurringExpenseService.createRecurringExpense(request, userId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(recurring);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retrieves a recurring expense by its ID.
+     *
+     * @param id The ID of the recurring expense
+     * @return The RecurringExpense entity
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringExpense> getRecurringExpense(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(recurringExpenseService.getRecurringExpense(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Retrieves the recurring expenses of a group.
+     *
+     * @param groupId The ID of the group
+     * @return A list of RecurringExpense entities
+     */
+    @GetMapping("/group/{groupId}")
+    public ResponseEntity<List<RecurringExpense>> getGroupRecurringExpenses(@PathVariable Long groupId) {
+        return ResponseEntity.ok(recurringExpenseService.getGroupRecurringExpenses(groupId));
+    }
+
+    /**
+     * Retrieves the personal (non-group) recurring expenses of a user.
+     *
+     * @param userId The ID of the user
+     * @return A list of RecurringExpense entities
+     */
+    @GetMapping("/personal/{userId}")
+    public ResponseEntity<List<RecurringExpense>> getPersonalRecurringExpenses(@PathVariable Long userId) {
+        return ResponseEntity.ok(recurringExpenseService.getPersonalRecurringExpenses(userId));
+    }
+
+    /**
+     * Deletes a recurring expense. Expenses already generated are kept.
+     *
+     * @param id          The ID of the recurring expense
+     * @param httpRequest The HTTP request (used to retrieve authenticated user ID)
+     * @return A 204 No Content response if successful
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRecurringExpense(@PathVariable Long id, HttpServletRequest httpRequest) {
+        try {
+            Long userId = (Long) httpRequest.getAttribute("userId");
+            if (userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("message", "User not authenticated"));
+            }
+
+            recurringExpenseService.deleteRecurringExpense(id, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+}
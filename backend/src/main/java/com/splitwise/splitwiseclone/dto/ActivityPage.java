@@ -0,0 +1,21 @@
+package com.splitwise.splitwiseclone.dto;
+
+import com.splitwise.splitwiseclone.entity.Activity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's activity feed, newest first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPage {
+    private List<Activity> items;
+    private Long nextCursor; // Pass as "before" for the next page; null at the end of the feed
+}
@@ -0,0 +1,19 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Access and refresh token pair issued on login, registration or refresh.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokens {
+    private Long userId;
+    private String accessToken;
+    private String refreshToken;
+}
@@ -0,0 +1,32 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalancePipelineStats {
+    private boolean enabled;
+    private long pendingEntries;
+    private int pendingGroups;
+    private long maxLagMs; // Age of the oldest unapplied entry
+    private long appliedEntries; // Since startup
+    private long failedBatches; // Since startup
+    private List<GroupLag> groups;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupLag {
+        private Long groupId;
+        private long pendingEntries;
+        private long lagMs;
+    }
+}
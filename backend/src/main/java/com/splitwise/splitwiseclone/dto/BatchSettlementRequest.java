@@ -0,0 +1,25 @@
+package com.splitwise.splitwiseclone.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Settlements to record together: either all of them are applied or none
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSettlementRequest {
+
+    @NotEmpty(message = "At least one settlement is required")
+    @Size(max = 1000, message = "At most 1000 settlements per batch")
+    private List<@Valid SettlementRequest> settlements;
+}
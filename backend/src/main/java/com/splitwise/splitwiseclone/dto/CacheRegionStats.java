@@ -0,0 +1,20 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStats {
+    private String region;
+    private String kind; // ENTITY or QUERY
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;
+    private Long elementsInMemory; // null when the provider does not report it
+}
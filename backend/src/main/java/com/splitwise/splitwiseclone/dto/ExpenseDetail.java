@@ -0,0 +1,23 @@
+package com.splitwise.splitwiseclone.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Expense list row with its splits embedded, serialized as the expense's
+ * fields plus a "splits" array.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseDetail {
+    @JsonUnwrapped
+    private ExpenseSummary expense;
+    private List<ExpenseSplitSummary> splits;
+}
@@ -0,0 +1,20 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a group's expenses with their splits, newest first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseDetailPage {
+    private List<ExpenseDetail> items;
+    private Integer nextPage; // Null once a page comes back short
+}
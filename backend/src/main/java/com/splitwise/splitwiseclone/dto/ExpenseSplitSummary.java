@@ -0,0 +1,25 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Split of an expense, as listed for the expense. Selected with a
+ * constructor expression instead of loading ExpenseSplit entities.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSplitSummary {
+    private Long id;
+    private Long expenseId;
+    private Long userId;
+    private BigDecimal amount;
+    private BigDecimal percentage;
+    private Integer shares;
+}
@@ -0,0 +1,31 @@
+package com.splitwise.splitwiseclone.dto;
+
+import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Expense row as shown in expense lists. Selected with a constructor
+ * expression, so list queries never hydrate managed Expense entities.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummary {
+    private Long id;
+    private BigDecimal amount;
+    private String description;
+    private CategoryType category;
+    private String currency;
+    private Long paidBy;
+    private Long groupId;
+    private SplitType splitType;
+    private LocalDateTime expenseDate;
+}
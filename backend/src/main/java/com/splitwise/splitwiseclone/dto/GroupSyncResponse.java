@@ -0,0 +1,41 @@
+package com.splitwise.splitwiseclone.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.entity.Group;
+import com.splitwise.splitwiseclone.entity.Settlement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes to a group between two versions. Entities are sent in their current
+ * state and replace the client's copy; the deleted/removed lists are
+ * tombstones. Empty fields are omitted, so an up-to-date client receives only
+ * the version numbers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class GroupSyncResponse {
+    private Long groupId;
+    private long fromVersion;
+    private long version; // Pass as "since" on the next sync
+    private boolean hasMore; // More changes after version; sync again right away
+    private boolean reset; // History since fromVersion is gone; reload the group from scratch
+    private Group group; // On the first sync and when the group was renamed
+    private List<Expense> expenses;
+    private List<ExpenseSplit> splits; // All splits of every expense in expenses
+    private List<Long> deletedExpenseIds;
+    private List<Settlement> settlements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<BalanceResponse> balances; // When present (even empty), the group's complete balances
+    private List<GroupMemberDto> members;
+    private List<Long> removedMemberIds; // User IDs
+}
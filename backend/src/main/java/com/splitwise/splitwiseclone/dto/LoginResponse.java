@@ -11,4 +11,5 @@ public class LoginResponse {
     private String name;
     private String message;
     private String token;
+    private String refreshToken;
 }
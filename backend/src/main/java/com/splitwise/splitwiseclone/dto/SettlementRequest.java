@@ -0,0 +1,35 @@
+package com.splitwise.splitwiseclone.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One payment within a batch settlement
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRequest {
+
+    @NotNull(message = "From user ID is required")
+    private Long fromUserId;
+
+    @NotNull(message = "To user ID is required")
+    private Long toUserId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Currency is required")
+    @Size(min = 3, max = 3, message = "Currency must be 3-letter code")
+    private String currency;
+
+    private Long groupId; // Nullable for personal settlements
+}
@@ -0,0 +1,27 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Settlement as shown in settlement history. Selected with a constructor
+ * expression instead of loading Settlement entities.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementSummary {
+    private Long id;
+    private Long fromUserId;
+    private Long toUserId;
+    private Long groupId;
+    private BigDecimal amount;
+    private String currency;
+    private LocalDateTime settledAt;
+}
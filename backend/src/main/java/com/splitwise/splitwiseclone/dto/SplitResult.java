@@ -0,0 +1,23 @@
+package com.splitwise.splitwiseclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One participant's share of an expense as calculated by a SplitStrategy:
+ * the amount they owe plus the split metadata (percentage/shares) to persist.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitResult {
+    private Long userId;
+    private BigDecimal amount;
+    private BigDecimal percentage; // For PERCENTAGE split
+    private Integer shares; // For SHARES split
+}
@@ -0,0 +1,66 @@
+package com.splitwise.splitwiseclone.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.splitwise.splitwiseclone.enums.ActivityType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the activity feed, written once per domain change. Who sees
+ * it is recorded separately in activity_feed (fan-out on write), except for
+ * activities of very large groups, which members read straight from here.
+ */
+@Entity
+@Table(name = "activities", indexes = {
+        @Index(name = "idx_activities_group_fanout", columnList = "group_id, fanned_out, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Activity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ActivityType type;
+
+    @Column
+    private Long actorId; // Null for system changes
+
+    @Column(name = "group_id")
+    private Long groupId; // Null for personal expenses and settlements
+
+    @Column(nullable = false)
+    private Long entityId; // Expense, settlement or member user ID, depending on type
+
+    @Column
+    private Long subjectUserId; // Settlement recipient or added/removed member
+
+    @Column
+    private String description;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 3)
+    private String currency;
+
+    @JsonIgnore
+    @Column(name = "fanned_out", nullable = false)
+    private boolean fannedOut; // False for large groups: members read it through the group
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.splitwise.splitwiseclone.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Delivery of an activity to one user's feed. Rows are narrow and read by
+ * (user_id, activity_id) descending, so a feed page is one index range scan.
+ */
+@Entity
+@Table(name = "activity_feed", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_activity_feed_user_activity", columnNames = { "user_id", "activity_id" })
+}, indexes = {
+        @Index(name = "idx_activity_feed_activity", columnList = "activity_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityFeedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+}
@@ -0,0 +1,90 @@
+package com.splitwise.splitwiseclone.entity;
+
+import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Expense of an archived (settled, inactive) group, moved out of the hot
+ * expenses table. Same columns and ids as {@link Expense}, but only indexed
+ * by group.
+ */
+@Entity
+@Table(name = "archived_expenses", indexes = {
+        @Index(name = "idx_archived_expenses_group", columnList = "group_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedExpense {
+
+    @Id
+    private Long id; // Id of the original expense
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryType category;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private Long paidBy;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SplitType splitType;
+
+    @Column(nullable = false)
+    private LocalDateTime expenseDate;
+
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+
+    @Column(name = "recurrence_date")
+    private LocalDateTime recurrenceDate;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Detached expense carrying the archived values, for read paths.
+     */
+    public Expense toExpense() {
+        return Expense.builder()
+                .id(id)
+                .amount(amount)
+                .description(description)
+                .category(category)
+                .currency(currency)
+                .paidBy(paidBy)
+                .groupId(groupId)
+                .splitType(splitType)
+                .expenseDate(expenseDate)
+                .recurringExpenseId(recurringExpenseId)
+                .recurrenceDate(recurrenceDate)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.splitwise.splitwiseclone.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Split of an archived expense. Carries the group id so a group can be
+ * restored or purged without joining archived_expenses.
+ */
+@Entity
+@Table(name = "archived_expense_splits", indexes = {
+        @Index(name = "idx_archived_splits_expense", columnList = "expense_id"),
+        @Index(name = "idx_archived_splits_group", columnList = "group_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedExpenseSplit {
+
+    @Id
+    private Long id; // Id of the original split
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal percentage;
+
+    @Column
+    private Integer shares;
+
+    /**
+     * Detached split carrying the archived values, for read paths.
+     */
+    public ExpenseSplit toExpenseSplit() {
+        return ExpenseSplit.builder()
+                .id(id)
+                .expenseId(expenseId)
+                .userId(userId)
+                .amount(amount)
+                .percentage(percentage)
+                .shares(shares)
+                .build();
+    }
+}
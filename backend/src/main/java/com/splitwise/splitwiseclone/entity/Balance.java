@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -42,4 +43,10 @@ public class Balance {
     @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    // Settlements and the asynchronous balance writer update the same rows
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,45 @@
+package com.splitwise.splitwiseclone.entity;
+
+import com.splitwise.splitwiseclone.enums.BalanceOutboxType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending balance work for a group, written in the same transaction as the
+ * expense change and drained by the group's single writer. The id doubles as
+ * the read-your-writes token handed back to clients.
+ */
+@Entity
+@Table(name = "balance_outbox", indexes = {
+        @Index(name = "idx_balance_outbox_group", columnList = "group_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "expense_id")
+    private Long expenseId; // Null for REBUILD entries
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BalanceOutboxType type;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
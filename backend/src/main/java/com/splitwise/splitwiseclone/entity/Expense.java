@@ -1,5 +1,6 @@
 package com.splitwise.splitwiseclone.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.splitwise.splitwiseclone.enums.CategoryType;
 import com.splitwise.splitwiseclone.enums.SplitType;
 import jakarta.persistence.*;
@@ -14,7 +15,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_expenses_recurrence", columnNames = { "recurring_expense_id", "recurrence_date" })
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -51,6 +54,21 @@ public class Expense {
     @Column(nullable = false)
     private LocalDateTime expenseDate;
 
+    @Column(name = "balance_pending", nullable = false, columnDefinition = "boolean default false")
+    private boolean balancePending; // True until the async balance writer has applied this expense
+
+    @Column(name = "recurring_expense_id")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long recurringExpenseId; // Set on expenses generated from a recurring expense
+
+    @Column(name = "recurrence_date")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime recurrenceDate; // The occurrence this expense was generated for
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long balanceToken; // Read-your-writes token returned when balances are applied asynchronously
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,53 @@
+package com.splitwise.splitwiseclone.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * File (e.g. a receipt photo) attached to an expense. The bytes live in the
+ * content-addressed store under {@code contentHash}; identical uploads share
+ * one stored file.
+ */
+@Entity
+@Table(name = "expense_attachments", indexes = {
+        @Index(name = "idx_attachments_expense", columnList = "expense_id"),
+        @Index(name = "idx_attachments_hash", columnList = "content_hash")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // Hex SHA-256 of the content
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Long uploadedBy;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
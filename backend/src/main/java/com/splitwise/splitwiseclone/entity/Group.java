@@ -1,5 +1,6 @@
 package com.splitwise.splitwiseclone.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -37,4 +38,12 @@ public class Group {
     @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt; // Tombstone: set on delete, row removed once its data is purged
+
+    @JsonIgnore
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt; // Set while the group's expenses live in the archive tables
 }
@@ -0,0 +1,46 @@
+package com.splitwise.splitwiseclone.entity;
+
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change log entry: one row per entity touched by a group version, written in
+ * the transaction that bumps the version. Delta sync reads the rows after a
+ * client's version through the (group_id, version) index.
+ */
+@Entity
+@Table(name = "group_changes", indexes = {
+        @Index(name = "idx_group_changes_group_version", columnList = "group_id, version"),
+        @Index(name = "idx_group_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private GroupChangeType changeType;
+
+    private Long entityId; // Expense, settlement, member user or group ID; null for BALANCES_UPDATED
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt; // Same for every row of a version
+}
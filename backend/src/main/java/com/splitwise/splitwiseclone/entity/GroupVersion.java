@@ -0,0 +1,27 @@
+package com.splitwise.splitwiseclone.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monotonically increasing change counter per group. Kept out of the groups
+ * table so that bumping it never touches the Group row.
+ */
+@Entity
+@Table(name = "group_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupVersion {
+
+    @Id
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(nullable = false)
+    private Long version;
+}
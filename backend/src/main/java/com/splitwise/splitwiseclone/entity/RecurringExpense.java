@@ -0,0 +1,104 @@
+package com.splitwise.splitwiseclone.entity;
+
+import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.RecurrenceFrequency;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of an expense that repeats on a schedule (rent, utilities,
+ * subscriptions). The schedule is either a frequency with an interval,
+ * anchored on startDate, or a cron expression. The scheduler generates one
+ * expense per occurrence and advances nextRunAt in the same transaction.
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_expenses_due", columnList = "active, next_run_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id")
+    private Long groupId; // Nullable for personal expenses
+
+    @Column(nullable = false)
+    private Long paidBy;
+
+    @Column(nullable = false)
+    private Long createdBy;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoryType category;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SplitType splitType;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "recurring_expense_participants",
+            joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    @OrderColumn(name = "participant_order")
+    @BatchSize(size = 100)
+    @Builder.Default
+    private List<RecurringExpenseParticipant> participants = new ArrayList<>();
+
+    @Enumerated(EnumType.STRING)
+    private RecurrenceFrequency frequency; // Null when cronExpression is used
+
+    @Column(name = "interval_count")
+    private Integer intervalCount; // Every n days/weeks/months/years
+
+    @Column(name = "cron_expression")
+    private String cronExpression; // Spring cron format, e.g. "0 0 9 1 * *"
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate; // Nullable: repeats until deleted
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt; // Null once the schedule has ended
+
+    @Column(nullable = false)
+    private int occurrences; // Expenses generated so far
+
+    private LocalDateTime lastRunAt;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Version
+    private Long version;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.splitwise.splitwiseclone.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Split details of one participant of a recurring expense, copied into every
+ * generated expense.
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpenseParticipant {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amount; // For EXACT split
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal percentage; // For PERCENTAGE split
+
+    @Column
+    private Integer shares; // For SHARES split
+}
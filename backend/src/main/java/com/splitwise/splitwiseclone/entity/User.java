@@ -5,13 +5,23 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+// The only second-level cached entity: cache regions are local to each node, so
+// only data that rarely changes and tolerates being stale for the region's TTL
+// (names in member lists) belongs there. Updates write just the changed
+// columns, so an edit made from a stale copy cannot restore an old password hash.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
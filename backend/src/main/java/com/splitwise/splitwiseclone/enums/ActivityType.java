@@ -0,0 +1,10 @@
+package com.splitwise.splitwiseclone.enums;
+
+public enum ActivityType {
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED,
+    SETTLEMENT_CREATED,
+    MEMBER_ADDED,
+    MEMBER_REMOVED
+}
@@ -0,0 +1,6 @@
+package com.splitwise.splitwiseclone.enums;
+
+public enum BalanceOutboxType {
+    DELTA,
+    REBUILD
+}
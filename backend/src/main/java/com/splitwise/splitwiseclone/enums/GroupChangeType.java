@@ -0,0 +1,13 @@
+package com.splitwise.splitwiseclone.enums;
+
+public enum GroupChangeType {
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED,
+    SETTLEMENT_CREATED,
+    BALANCES_UPDATED,
+    MEMBER_ADDED,
+    MEMBER_REMOVED,
+    GROUP_UPDATED,
+    GROUP_DELETED
+}
@@ -0,0 +1,6 @@
+package com.splitwise.splitwiseclone.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DEAD // Gave up after the maximum number of attempts
+}
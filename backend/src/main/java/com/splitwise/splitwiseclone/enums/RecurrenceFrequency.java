@@ -0,0 +1,8 @@
+package com.splitwise.splitwiseclone.enums;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY
+}
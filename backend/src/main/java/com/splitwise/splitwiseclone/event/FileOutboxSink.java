@@ -0,0 +1,69 @@
+package com.splitwise.splitwiseclone.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox events to a JSON-lines file, one object per event, and
+ * forces the file to disk before acknowledging the batch. Useful for testing
+ * and as a simple integration point for log shippers.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.file.enabled", havingValue = "true")
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(
+            @Value("${outbox.sinks.file.path:./data/outbox-events.jsonl}") String path,
+            ObjectMapper objectMapper) throws IOException {
+        this.file = Path.of(path).toAbsolutePath().normalize();
+        this.objectMapper = objectMapper;
+        Files.createDirectories(file.getParent());
+        log.info("Outbox events are appended to {}", file);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            for (OutboxEvent event : events) {
+                ObjectNode line = objectMapper.createObjectNode()
+                        .put("id", event.getId())
+                        .put("type", event.getEventType())
+                        .put("aggregateType", event.getAggregateType())
+                        .put("aggregateId", event.getAggregateId())
+                        .put("groupId", event.getGroupId())
+                        .put("createdAt", event.getCreatedAt().toString());
+                line.set("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+    }
+}
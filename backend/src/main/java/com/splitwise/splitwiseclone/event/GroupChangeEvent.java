@@ -0,0 +1,26 @@
+package com.splitwise.splitwiseclone.event;
+
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain event published by the services whenever data belonging to a group
+ * changes. Listeners that talk to clients must only act after commit.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupChangeEvent {
+    private Long groupId;
+    private GroupChangeType type;
+    private Long entityId;
+    private List<Long> entityIds; // Every entity touched when one event covers a bulk write; entityId is the last
+    private Long actorId;
+    private Long version; // Assigned by GroupVersionService inside the publishing transaction
+}
@@ -0,0 +1,166 @@
+package com.splitwise.splitwiseclone.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans group change events out to Server-Sent Event subscribers.
+ * Idle connections cost one emitter and a small bounded queue; no thread is
+ * held per connection. Events are written by a small sender pool, and a
+ * subscriber whose queue overflows is considered too slow and is dropped
+ * (the client reconnects and re-fetches).
+ */
+@Component
+@Slf4j
+public class GroupEventBroadcaster {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final int queueCapacity;
+    private final long emitterTimeoutMs;
+
+    public GroupEventBroadcaster(
+            @Value("${sse.sender-threads:4}") int senderThreads,
+            @Value("${sse.queue-capacity:64}") int queueCapacity,
+            @Value("${sse.timeout:1800000}") long emitterTimeoutMs) {
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Registers a new subscriber for a group's change stream.
+     *
+     * @param groupId Group ID
+     * @return The emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long groupId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(groupId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+
+        subscribers.computeIfAbsent(groupId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        log.debug("SSE subscriber added for group {}", groupId);
+        return emitter;
+    }
+
+    /**
+     * Forwards a committed change to every subscriber of the group.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupChange(GroupChangeEvent event) {
+        if (event.getGroupId() == null) {
+            return;
+        }
+        Set<Subscriber> groupSubscribers = subscribers.get(event.getGroupId());
+        if (groupSubscribers == null) {
+            return;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : groupSubscribers) {
+            enqueue(subscriber, message);
+        }
+    }
+
+    /**
+     * Sends a comment line to every subscriber so that dead connections are
+     * detected and proxies do not close idle streams.
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> enqueue(subscriber, ping)));
+    }
+
+    /**
+     * Number of open subscriptions across all groups.
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (!subscriber.queue.offer(message)) {
+            log.debug("Dropping slow SSE subscriber for group {}", subscriber.groupId);
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> message;
+            while ((message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message);
+            }
+        } catch (Exception e) {
+            log.debug("SSE send failed for group {}: {}", subscriber.groupId, e.getMessage());
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.groupId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final Long groupId;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long groupId, SseEmitter emitter, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.groupId = groupId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.splitwise.splitwiseclone.event;
+
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes outbox events to the application log. Meant for development and
+ * testing.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.log.enabled", havingValue = "true")
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("Outbox event {} {} {}:{} group={} {}", event.getId(), event.getEventType(),
+                    event.getAggregateType(), event.getAggregateId(), event.getGroupId(), event.getPayload());
+        }
+    }
+}
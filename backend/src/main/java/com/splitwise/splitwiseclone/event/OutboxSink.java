@@ -0,0 +1,38 @@
+package com.splitwise.splitwiseclone.event;
+
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events (log, file, webhooks, email, ...). Every
+ * sink bean receives every batch. Delivery is at least once: a batch that
+ * fails on any sink is retried on all of them, so sinks must tolerate
+ * duplicates, e.g. by event id.
+ */
+public interface OutboxSink {
+
+    /**
+     * Name used in logs and metrics.
+     */
+    String name();
+
+    /**
+     * Delivers a batch of events, oldest first. Returning normally
+     * acknowledges the whole batch.
+     *
+     * @param events Events to deliver
+     * @throws Exception if the batch could not be delivered
+     */
+    void deliver(List<OutboxEvent> events) throws Exception;
+
+    /**
+     * Checks that the sink can take deliveries at all, to tell an outage
+     * from events it rejects. The default delivers an empty batch.
+     *
+     * @throws Exception if the sink is unavailable
+     */
+    default void probe() throws Exception {
+        deliver(List.of());
+    }
+}
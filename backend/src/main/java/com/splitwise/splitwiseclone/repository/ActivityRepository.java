@@ -0,0 +1,30 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.Activity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActivityRepository extends JpaRepository<Activity, Long>, ActivityRepositoryCustom {
+
+    /**
+     * Activities delivered to a user's feed, newest first, older than a cursor.
+     */
+    @Query("SELECT a FROM ActivityFeedEntry f JOIN Activity a ON a.id = f.activityId "
+            + "WHERE f.userId = :userId AND f.activityId < :before ORDER BY f.activityId DESC")
+    List<Activity> findFeed(@Param("userId") Long userId, @Param("before") Long before, Pageable pageable);
+
+    /**
+     * Activities of the user's groups that were not fanned out (large groups),
+     * newest first, older than a cursor.
+     */
+    @Query("SELECT a FROM Activity a WHERE a.fannedOut = false AND a.id < :before "
+            + "AND a.groupId IN (SELECT m.groupId FROM GroupMember m WHERE m.userId = :userId) ORDER BY a.id DESC")
+    List<Activity> findUnfannedForMember(@Param("userId") Long userId, @Param("before") Long before,
+            Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.splitwise.splitwiseclone.repository;
+
+import java.util.Collection;
+
+/**
+ * Bulk fan-out of activities into user feeds.
+ */
+public interface ActivityRepositoryCustom {
+
+    /**
+     * Delivers an activity to the given users' feeds with batched JDBC
+     * inserts, in the caller's transaction.
+     *
+     * @param activityId Activity ID
+     * @param userIds    Recipients, without duplicates
+     */
+    void fanOut(Long activityId, Collection<Long> userIds);
+}
@@ -0,0 +1,28 @@
+package com.splitwise.splitwiseclone.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+/**
+ * JDBC implementation of {@link ActivityRepositoryCustom}; like expense
+ * splits, feed rows use IDENTITY ids that Hibernate would insert one by one.
+ */
+@RequiredArgsConstructor
+public class ActivityRepositoryImpl implements ActivityRepositoryCustom {
+
+    static final String INSERT_SQL = "INSERT INTO activity_feed (user_id, activity_id) VALUES (?, ?)";
+
+    static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void fanOut(Long activityId, Collection<Long> userIds) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, userIds, BATCH_SIZE, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, activityId);
+        });
+    }
+}
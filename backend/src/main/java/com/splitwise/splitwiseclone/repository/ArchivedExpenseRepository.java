@@ -0,0 +1,25 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
+import com.splitwise.splitwiseclone.entity.ArchivedExpense;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedExpenseRepository extends JpaRepository<ArchivedExpense, Long> {
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary(e.id, e.amount, e.description, e.category, "
+            + "e.currency, e.paidBy, e.groupId, e.splitType, e.expenseDate) FROM ArchivedExpense e "
+            + "WHERE e.groupId = :groupId")
+    List<ExpenseSummary> findSummariesByGroupId(@Param("groupId") Long groupId);
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary(e.id, e.amount, e.description, e.category, "
+            + "e.currency, e.paidBy, e.groupId, e.splitType, e.expenseDate) FROM ArchivedExpense e "
+            + "WHERE e.groupId = :groupId ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseSummary> findSummaryPageByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+}
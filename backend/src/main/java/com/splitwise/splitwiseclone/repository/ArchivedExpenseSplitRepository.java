@@ -0,0 +1,25 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.dto.ExpenseSplitSummary;
+import com.splitwise.splitwiseclone.entity.ArchivedExpenseSplit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedExpenseSplitRepository extends JpaRepository<ArchivedExpenseSplit, Long> {
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSplitSummary(s.id, s.expenseId, s.userId, s.amount, "
+            + "s.percentage, s.shares) FROM ArchivedExpenseSplit s WHERE s.expenseId = :expenseId")
+    List<ExpenseSplitSummary> findSummariesByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSplitSummary(s.id, s.expenseId, s.userId, s.amount, "
+            + "s.percentage, s.shares) FROM ArchivedExpenseSplit s WHERE s.expenseId IN :expenseIds ORDER BY s.expenseId, s.id")
+    List<ExpenseSplitSummary> findSummariesByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    List<ArchivedExpenseSplit> findByExpenseIdIn(Collection<Long> expenseIds);
+}
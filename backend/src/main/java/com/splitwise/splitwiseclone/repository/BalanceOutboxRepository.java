@@ -0,0 +1,33 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.BalanceOutboxEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BalanceOutboxRepository extends JpaRepository<BalanceOutboxEntry, Long> {
+
+    /**
+     * The oldest entries of a group, locked. Another node draining the same
+     * group waits here until the first one commits, and then only gets the
+     * entries that are still left, so no delta is applied twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM BalanceOutboxEntry o WHERE o.groupId = :groupId ORDER BY o.id")
+    List<BalanceOutboxEntry> findByGroupIdForUpdate(@Param("groupId") Long groupId, Pageable pageable);
+
+    boolean existsByGroupIdAndIdLessThanEqual(Long groupId, Long id);
+
+    /**
+     * Per-group lag: [groupId, pending entries, oldest createdAt]
+     */
+    @Query("SELECT o.groupId, COUNT(o), MIN(o.createdAt) FROM BalanceOutboxEntry o GROUP BY o.groupId")
+    List<Object[]> summarizePendingByGroup();
+}
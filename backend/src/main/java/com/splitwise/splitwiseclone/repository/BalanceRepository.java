@@ -1,11 +1,15 @@
 package com.splitwise.splitwiseclone.repository;
 
+import com.splitwise.splitwiseclone.dto.BalanceResponse;
 import com.splitwise.splitwiseclone.entity.Balance;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +21,39 @@ public interface BalanceRepository extends JpaRepository<Balance, Long> {
 
     List<Balance> findByGroupId(Long groupId);
 
+    /**
+     * Balances of a group with the user and group names joined in, in one
+     * query and without loading Balance entities.
+     */
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.BalanceResponse(b.id, b.fromUserId, "
+            + "COALESCE(f.name, 'Unknown'), b.toUserId, COALESCE(t.name, 'Unknown'), b.amount, b.currency, b.groupId, "
+            + "g.name) FROM Balance b LEFT JOIN User f ON f.id = b.fromUserId LEFT JOIN User t ON t.id = b.toUserId "
+            + "LEFT JOIN Group g ON g.id = b.groupId "
+            + "WHERE b.groupId = :groupId")
+    List<BalanceResponse> findResponsesByGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Balances involving a user with the user and group names joined in.
+     */
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.BalanceResponse(b.id, b.fromUserId, "
+            + "COALESCE(f.name, 'Unknown'), b.toUserId, COALESCE(t.name, 'Unknown'), b.amount, b.currency, b.groupId, "
+            + "g.name) FROM Balance b LEFT JOIN User f ON f.id = b.fromUserId LEFT JOIN User t ON t.id = b.toUserId "
+            + "LEFT JOIN Group g ON g.id = b.groupId "
+            + "WHERE b.fromUserId = :userId OR b.toUserId = :userId")
+    List<BalanceResponse> findResponsesByUserId(@Param("userId") Long userId);
+
     Optional<Balance> findByFromUserIdAndToUserIdAndGroupId(Long fromUserId, Long toUserId, Long groupId);
 
     @Query("SELECT b FROM Balance b WHERE (b.fromUserId = :userId OR b.toUserId = :userId) AND b.groupId = :groupId")
     List<Balance> findByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
 
     void deleteByGroupId(Long groupId);
+
+    /**
+     * Locks every balance between the given users (in any direction and any
+     * group), in id order so concurrent batch settlements cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Balance b WHERE b.fromUserId IN :userIds AND b.toUserId IN :userIds ORDER BY b.id")
+    List<Balance> findAmongUsersForUpdate(@Param("userIds") Collection<Long> userIds);
 }
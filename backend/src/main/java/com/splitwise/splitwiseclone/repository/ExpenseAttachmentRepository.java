@@ -0,0 +1,27 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.ExpenseAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseAttachmentRepository extends JpaRepository<ExpenseAttachment, Long> {
+
+    List<ExpenseAttachment> findByExpenseIdOrderByIdAsc(Long expenseId);
+
+    Optional<ExpenseAttachment> findByIdAndExpenseId(Long id, Long expenseId);
+
+    @Query("SELECT DISTINCT a.contentHash FROM ExpenseAttachment a WHERE a.contentHash IN :hashes")
+    List<String> findReferencedHashes(@Param("hashes") Collection<String> hashes);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseAttachment a WHERE a.expenseId = :expenseId")
+    int deleteAllByExpenseIdInBulk(@Param("expenseId") Long expenseId);
+}
@@ -1,13 +1,17 @@
 package com.splitwise.splitwiseclone.repository;
 
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
 import com.splitwise.splitwiseclone.entity.Expense;
 import com.splitwise.splitwiseclone.enums.CategoryType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,11 +19,36 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     List<Expense> findByGroupId(Long groupId);
 
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary(e.id, e.amount, e.description, e.category, "
+            + "e.currency, e.paidBy, e.groupId, e.splitType, e.expenseDate) FROM Expense e WHERE e.groupId = :groupId")
+    List<ExpenseSummary> findSummariesByGroupId(@Param("groupId") Long groupId);
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary(e.id, e.amount, e.description, e.category, "
+            + "e.currency, e.paidBy, e.groupId, e.splitType, e.expenseDate) FROM Expense e WHERE e.groupId = :groupId "
+            + "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseSummary> findSummaryPageByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    /**
+     * Expenses whose balance effect has been applied (excludes ones still
+     * queued for the async balance writer).
+     */
+    @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.balancePending = false")
+    List<Expense> findAppliedByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("UPDATE Expense e SET e.balancePending = false WHERE e.id IN :ids")
+    int markBalancesApplied(@Param("ids") Collection<Long> ids);
+
     List<Expense> findByPaidBy(Long userId);
 
     @Query("SELECT e FROM Expense e WHERE e.paidBy = :userId AND e.groupId IS NULL")
     List<Expense> findPersonalExpensesByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSummary(e.id, e.amount, e.description, e.category, "
+            + "e.currency, e.paidBy, e.groupId, e.splitType, e.expenseDate) FROM Expense e "
+            + "WHERE e.paidBy = :userId AND e.groupId IS NULL")
+    List<ExpenseSummary> findPersonalSummariesByUserId(@Param("userId") Long userId);
+
     @Query("SELECT e FROM Expense e WHERE e.groupId = :groupId AND e.expenseDate BETWEEN :startDate AND :endDate")
     List<Expense> findByGroupIdAndDateRange(
             @Param("groupId") Long groupId,
@@ -1,17 +1,36 @@
 package com.splitwise.splitwiseclone.repository;
 
+import com.splitwise.splitwiseclone.dto.ExpenseSplitSummary;
 import com.splitwise.splitwiseclone.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long> {
+public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long>, ExpenseSplitRepositoryCustom {
 
     List<ExpenseSplit> findByExpenseId(Long expenseId);
 
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSplitSummary(s.id, s.expenseId, s.userId, s.amount, "
+            + "s.percentage, s.shares) FROM ExpenseSplit s WHERE s.expenseId = :expenseId")
+    List<ExpenseSplitSummary> findSummariesByExpenseId(@Param("expenseId") Long expenseId);
+
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.ExpenseSplitSummary(s.id, s.expenseId, s.userId, s.amount, "
+            + "s.percentage, s.shares) FROM ExpenseSplit s WHERE s.expenseId IN :expenseIds ORDER BY s.expenseId, s.id")
+    List<ExpenseSplitSummary> findSummariesByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    List<ExpenseSplit> findByExpenseIdIn(Collection<Long> expenseIds);
+
     List<ExpenseSplit> findByUserId(Long userId);
 
     void deleteByExpenseId(Long expenseId);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseSplit s WHERE s.expenseId = :expenseId")
+    int deleteAllByExpenseIdInBulk(@Param("expenseId") Long expenseId);
 }
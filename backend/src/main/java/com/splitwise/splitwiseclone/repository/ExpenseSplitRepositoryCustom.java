@@ -0,0 +1,21 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.dto.SplitResult;
+
+import java.util.List;
+
+/**
+ * Bulk operations on expense splits that bypass the persistence context.
+ */
+public interface ExpenseSplitRepositoryCustom {
+
+    /**
+     * Inserts all splits of an expense with batched JDBC inserts, in the
+     * caller's transaction. The rows are not loaded into the persistence
+     * context.
+     *
+     * @param expenseId Expense ID
+     * @param splits    Calculated splits, one row each
+     */
+    void insertAll(Long expenseId, List<SplitResult> splits);
+}
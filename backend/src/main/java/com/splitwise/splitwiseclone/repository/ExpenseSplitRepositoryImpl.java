@@ -0,0 +1,38 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.dto.SplitResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ExpenseSplitRepositoryCustom}. IDENTITY ids
+ * keep Hibernate from batching inserts, so splits are written here directly.
+ */
+@RequiredArgsConstructor
+public class ExpenseSplitRepositoryImpl implements ExpenseSplitRepositoryCustom {
+
+    static final String INSERT_SQL =
+            "INSERT INTO expense_splits (expense_id, user_id, amount, percentage, shares) VALUES (?, ?, ?, ?, ?)";
+
+    static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Long expenseId, List<SplitResult> splits) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, splits, BATCH_SIZE, (ps, split) -> {
+            ps.setLong(1, expenseId);
+            ps.setLong(2, split.getUserId());
+            ps.setBigDecimal(3, split.getAmount());
+            ps.setBigDecimal(4, split.getPercentage());
+            if (split.getShares() != null) {
+                ps.setInt(5, split.getShares());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.GroupChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GroupChangeRepository extends JpaRepository<GroupChange, Long> {
+
+    @Query("SELECT c FROM GroupChange c WHERE c.groupId = :groupId AND c.version > :since AND c.version <= :until "
+            + "ORDER BY c.version, c.id")
+    List<GroupChange> findVersionRange(@Param("groupId") Long groupId, @Param("since") Long since,
+            @Param("until") Long until);
+
+    boolean existsByGroupIdAndVersionGreaterThan(Long groupId, Long version);
+
+    @Query("SELECT MAX(c.version) FROM GroupChange c WHERE c.groupId = :groupId AND c.changedAt <= :time")
+    Optional<Long> findLastVersionAt(@Param("groupId") Long groupId, @Param("time") LocalDateTime time);
+}
@@ -2,7 +2,11 @@ package com.splitwise.splitwiseclone.repository;
 
 import com.splitwise.splitwiseclone.entity.GroupMember;
 import com.splitwise.splitwiseclone.enums.GroupRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,7 +25,14 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
 
     List<GroupMember> findByGroupIdAndRole(Long groupId, GroupRole role);
 
+    @Query("SELECT m.userId FROM GroupMember m WHERE m.groupId = :groupId ORDER BY m.userId")
+    List<Long> findUserIdsByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
     void deleteByGroupIdAndUserId(Long groupId, Long userId);
 
     void deleteByGroupId(Long groupId);
+
+    @Modifying
+    @Query("DELETE FROM GroupMember m WHERE m.groupId = :groupId")
+    int deleteAllByGroupIdInBulk(@Param("groupId") Long groupId);
 }
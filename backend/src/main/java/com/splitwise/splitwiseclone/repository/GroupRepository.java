@@ -1,18 +1,67 @@
 package com.splitwise.splitwiseclone.repository;
 
 import com.splitwise.splitwiseclone.entity.Group;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
     List<Group> findByCreatedBy(Long userId);
 
-    @Query("SELECT g FROM Group g JOIN GroupMember gm ON g.id = gm.groupId WHERE gm.userId = :userId")
+    @Query("SELECT g.id FROM Group g WHERE g.deletedAt IS NOT NULL ORDER BY g.id")
+    List<Long> findDeletedGroupIds();
+
+    /**
+     * Groups that can move to the archive: not deleted or archived, with
+     * expenses, fully settled (no balance rows), with no queued balance work
+     * or active recurring expense, and with no activity since the cutoff.
+     */
+    @Query("SELECT g.id FROM Group g WHERE g.deletedAt IS NULL AND g.archivedAt IS NULL AND g.updatedAt < :cutoff "
+            + "AND EXISTS (SELECT 1 FROM Expense e WHERE e.groupId = g.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM Expense e WHERE e.groupId = g.id "
+            + "    AND (e.updatedAt >= :cutoff OR e.balancePending = true)) "
+            + "AND NOT EXISTS (SELECT 1 FROM Balance b WHERE b.groupId = g.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM Settlement s WHERE s.groupId = g.id AND s.settledAt >= :cutoff) "
+            + "AND NOT EXISTS (SELECT 1 FROM BalanceOutboxEntry o WHERE o.groupId = g.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM RecurringExpense r WHERE r.groupId = g.id AND r.active = true) "
+            + "ORDER BY g.id")
+    List<Long> findArchivableGroupIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Group g WHERE g.id = :groupId")
+    Optional<Group> findByIdForUpdate(@Param("groupId") Long groupId);
+
+    /**
+     * Reads the archived mark from the row itself, never from a group loaded
+     * earlier in the persistence context.
+     */
+    boolean existsByIdAndArchivedAtIsNotNull(Long groupId);
+
+    /**
+     * Clears the archived mark. The update takes the group row lock, waiting
+     * for an archiving chunk in progress; only the caller that gets 1 back
+     * moves the expenses back.
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.archivedAt = NULL, g.updatedAt = :now WHERE g.id = :groupId AND g.archivedAt IS NOT NULL")
+    int clearArchivedAt(@Param("groupId") Long groupId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Group g WHERE g.id = :groupId AND g.deletedAt IS NOT NULL")
+    int deleteTombstone(@Param("groupId") Long groupId);
+
+    @Query("SELECT g FROM Group g JOIN GroupMember gm ON g.id = gm.groupId "
+            + "WHERE gm.userId = :userId AND g.deletedAt IS NULL")
     List<Group> findGroupsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,21 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.GroupVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GroupVersionRepository extends JpaRepository<GroupVersion, Long> {
+
+    @Modifying
+    @Query("UPDATE GroupVersion v SET v.version = v.version + 1 WHERE v.groupId = :groupId")
+    int increment(@Param("groupId") Long groupId);
+
+    @Query("SELECT v.version FROM GroupVersion v WHERE v.groupId = :groupId")
+    Optional<Long> findVersionByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,50 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import com.splitwise.splitwiseclone.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Next batch of events due for delivery, oldest first. Rows locked by
+     * another relay are skipped (lock timeout -2 is SKIP LOCKED), so relays on
+     * several nodes never deliver the same batch concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({ @QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2") })
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.splitwise.splitwiseclone.enums.OutboxStatus.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Leases claimed events to this relay until the given time: they are
+     * skipped by every relay until then and delivered again if the lease
+     * expires before they were deleted.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.splitwise.splitwiseclone.enums.OutboxStatus.PENDING, "
+            + "e.attempts = 0, e.nextAttemptAt = :now "
+            + "WHERE e.status = com.splitwise.splitwiseclone.enums.OutboxStatus.DEAD")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,50 @@
+package com.splitwise.splitwiseclone.repository;
+
+import com.splitwise.splitwiseclone.entity.RecurringExpense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    /**
+     * Claims a chunk of due definitions after the given position, ordered by
+     * group (personal ones first, as group 0) so a chunk touches as few groups
+     * as possible. Rows locked by another node are skipped (lock timeout -2 is
+     * SKIP LOCKED), so concurrent schedulers never generate the same
+     * occurrence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({ @QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2") })
+    @Query("SELECT r FROM RecurringExpense r WHERE r.active = true AND r.nextRunAt <= :now "
+            + "AND (COALESCE(r.groupId, 0) > :afterGroupId "
+            + "OR (COALESCE(r.groupId, 0) = :afterGroupId AND r.id > :afterId)) "
+            + "ORDER BY COALESCE(r.groupId, 0), r.id")
+    List<RecurringExpense> findDueForUpdate(@Param("now") LocalDateTime now, @Param("afterGroupId") long afterGroupId,
+                                            @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Loads a definition and locks it, waiting for a scheduler run that is
+     * generating its occurrences.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringExpense r WHERE r.id = :id")
+    Optional<RecurringExpense> findByIdForUpdate(@Param("id") Long id);
+
+    List<RecurringExpense> findByGroupIdOrderByIdAsc(Long groupId);
+
+    @Query("SELECT r FROM RecurringExpense r WHERE r.groupId IS NULL AND (r.paidBy = :userId OR r.createdBy = :userId) "
+            + "ORDER BY r.id")
+    List<RecurringExpense> findPersonalByUserId(@Param("userId") Long userId);
+}
@@ -1,5 +1,6 @@
 package com.splitwise.splitwiseclone.repository;
 
+import com.splitwise.splitwiseclone.dto.SettlementSummary;
 import com.splitwise.splitwiseclone.entity.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +15,10 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
     @Query("SELECT s FROM Settlement s WHERE s.fromUserId = :userId OR s.toUserId = :userId")
     List<Settlement> findByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT new com.splitwise.splitwiseclone.dto.SettlementSummary(s.id, s.fromUserId, s.toUserId, s.groupId, "
+            + "s.amount, s.currency, s.settledAt) FROM Settlement s WHERE s.fromUserId = :userId OR s.toUserId = :userId")
+    List<SettlementSummary> findSummariesByUserId(@Param("userId") Long userId);
+
     List<Settlement> findByGroupId(Long groupId);
 
     @Query("SELECT s FROM Settlement s WHERE (s.fromUserId = :userId OR s.toUserId = :userId) AND s.groupId = :groupId")
@@ -0,0 +1,141 @@
+package com.splitwise.splitwiseclone.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe Bloom filter over strings. Sized from the expected
+ * number of insertions and the target false positive rate; probes use double
+ * hashing over a 128-bit murmur3-style hash of the UTF-8 bytes. Inserts are
+ * lock-free, so the filter can be read and written concurrently.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * @param expectedInsertions Number of elements the filter is sized for
+     * @param falsePositiveRate  Target false positive rate at that size
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+        this.words = new AtomicLongArray(words);
+        this.bits = (long) words << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param value Element
+     */
+    public void put(String value) {
+        long[] hash = hash(value);
+        long combined = hash[0];
+        for (int i = 0; i < hashes; i++) {
+            long index = (combined & Long.MAX_VALUE) % bits;
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            while (((current = words.get(word)) & mask) == 0
+                    && !words.compareAndSet(word, current, current | mask)) {
+                // Retry: another bit of this word was set concurrently
+            }
+            combined += hash[1];
+        }
+    }
+
+    /**
+     * Checks membership.
+     *
+     * @param value Element
+     * @return false if the element was definitely never added, true if it
+     *         probably was
+     */
+    public boolean mightContain(String value) {
+        long[] hash = hash(value);
+        long combined = hash[0];
+        for (int i = 0; i < hashes; i++) {
+            long index = (combined & Long.MAX_VALUE) % bits;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * Size of the bit array.
+     */
+    public long bitSize() {
+        return bits;
+    }
+
+    /**
+     * Number of probes per element.
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    private static long[] hash(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0x9368e53c2f6af274L;
+        long h2 = 0x586dcd208f7cd3fdL;
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            int shift = ((i - tail) & 7) << 3;
+            if (i - tail >= 8) {
+                k2 |= (data[i] & 0xffL) << shift;
+            } else {
+                k1 |= (data[i] & 0xffL) << shift;
+            }
+        }
+        h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+        h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] { h1, h2 | 1 };
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
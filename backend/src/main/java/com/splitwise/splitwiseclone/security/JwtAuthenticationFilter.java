@@ -25,6 +25,7 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -39,7 +40,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 log.debug("JwtAuthenticationFilter: JWT token found, validating...");
             }
 
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
+            if (jwt != null && jwtUtils.validateToken(jwt) && !isRevoked(jwt)) {
                 String email = jwtUtils.extractEmail(jwt);
                 Long userId = jwtUtils.extractUserId(jwt);
 
@@ -63,6 +64,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isRevoked(String jwt) {
+        String jti = jwtUtils.extractTokenId(jwt);
+        if (jti != null && revocationList.isRevoked(jti)) {
+            log.debug("JwtAuthenticationFilter: token {} has been revoked", jti);
+            return true;
+        }
+        return false;
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -10,9 +10,12 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Utility class for JWT token operations
@@ -32,6 +35,14 @@ public class JwtUtils {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * Generates a short-lived access token. Each token carries a unique id
+     * (jti) so it can be revoked individually.
+     *
+     * @param email  User email, used as the subject
+     * @param userId User ID
+     * @return Signed JWT
+     */
     public String generateToken(String email, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -40,6 +51,7 @@ public class JwtUtils {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -76,6 +88,14 @@ public class JwtUtils {
         return claims.get("userId", Long.class);
     }
 
+    public String extractTokenId(String token) {
+        return extractClaims(token).getId();
+    }
+
+    public LocalDateTime extractExpiration(String token) {
+        return LocalDateTime.ofInstant(extractClaims(token).getExpiration().toInstant(), ZoneId.systemDefault());
+    }
+
     private Claims extractClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
@@ -0,0 +1,147 @@
+package com.splitwise.splitwiseclone.security;
+
+import com.splitwise.splitwiseclone.entity.RevokedToken;
+import com.splitwise.splitwiseclone.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Revocation list for access tokens, consulted by JwtAuthenticationFilter on
+ * every authenticated request.
+ * <p>
+ * Revoked token ids are stored in the revoked_tokens table and mirrored into
+ * an in-memory Bloom filter. A token whose id is not in the filter is
+ * definitely not revoked, so the common case costs a few hash probes and no
+ * I/O; only a filter hit (a revoked token or a rare false positive) is
+ * confirmed against the table. Until the filter has been loaded at startup,
+ * every check goes to the table.
+ * <p>
+ * Revocations made on other nodes are picked up by a periodic sync, and the
+ * filter is rebuilt from the non-expired revocations on a longer interval,
+ * since a Bloom filter cannot forget entries.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter filterHits;
+    private final Counter confirmedRevocations;
+
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime syncedUpTo = LocalDateTime.MIN;
+
+    public TokenRevocationList(
+            RevokedTokenRepository revokedTokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filterHits = Counter.builder("splitwise.auth.revocation.filter.hits")
+                .description("Token checks that hit the revocation Bloom filter and went to the database")
+                .register(meterRegistry);
+        this.confirmedRevocations = Counter.builder("splitwise.auth.revocation.confirmed")
+                .description("Requests rejected with a revoked access token")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether an access token has been revoked.
+     *
+     * @param jti JWT id
+     * @return true if revoked
+     */
+    public boolean isRevoked(String jti) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        filterHits.increment();
+        boolean revoked = revokedTokenRepository.existsById(jti);
+        if (revoked) {
+            confirmedRevocations.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes an access token. Joins the caller's transaction if there is one.
+     *
+     * @param jti       JWT id
+     * @param expiresAt When the token expires; the entry is dropped after that
+     */
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .build());
+        // Added before commit: a rolled-back revocation is only a false positive
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+    }
+
+    /**
+     * Loads the filter once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Adds revocations made by other nodes since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:10000}")
+    public void sync() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        // Overlap one second to cover commits racing the previous sync
+        LocalDateTime since = syncedUpTo.minusSeconds(1);
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findJtisRevokedSince(since).forEach(current::put);
+        syncedUpTo = now;
+    }
+
+    /**
+     * Deletes expired revocations and swaps in a filter built from the rest.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:3600000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer pruned = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now));
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        syncedUpTo = now;
+        // Revocations committed while loading
+        sync();
+
+        log.info("Token revocation filter rebuilt: {} revoked tokens, {} expired entries pruned, {} bits, {} hashes",
+                active.size(), pruned, rebuilt.bitSize(), rebuilt.hashCount());
+    }
+}
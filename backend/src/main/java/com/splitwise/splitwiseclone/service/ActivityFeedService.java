@@ -0,0 +1,179 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.ActivityPage;
+import com.splitwise.splitwiseclone.entity.Activity;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.Settlement;
+import com.splitwise.splitwiseclone.enums.ActivityType;
+import com.splitwise.splitwiseclone.repository.ActivityRepository;
+import com.splitwise.splitwiseclone.repository.GroupMemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Per-user activity feed.
+ * <p>
+ * Writes fan out: each change is stored once in activities and delivered to
+ * every member of its group (or, for personal expenses and settlements, to
+ * the users involved) in the same transaction, so reading a feed is a single
+ * index range scan instead of a union over all of the user's groups. Groups
+ * with more than {@code activity.fanout.max-recipients} members are not
+ * fanned out; their members pick those activities up at read time from the
+ * group index, and the two sources are merged by activity id.
+ * <p>
+ * Feeds are paginated by activity id: a page holds activities older than the
+ * cursor, which stays stable while new activity arrives.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ActivityFeedService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ActivityRepository activityRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final int maxFanOut;
+
+    public ActivityFeedService(
+            ActivityRepository activityRepository,
+            GroupMemberRepository groupMemberRepository,
+            @Value("${activity.fanout.max-recipients:500}") int maxFanOut) {
+        this.activityRepository = activityRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.maxFanOut = maxFanOut;
+    }
+
+    /**
+     * Records an expense change.
+     *
+     * @param type         EXPENSE_CREATED, EXPENSE_UPDATED or EXPENSE_DELETED
+     * @param expense      The expense
+     * @param actorId      ID of the user making the change
+     * @param participants IDs of the users in the expense's splits; only used
+     *                     for personal expenses
+     */
+    public void recordExpense(ActivityType type, Expense expense, Long actorId, Collection<Long> participants) {
+        Set<Long> involved = new TreeSet<>(participants);
+        involved.add(expense.getPaidBy());
+        record(Activity.builder()
+                .type(type)
+                .actorId(actorId)
+                .groupId(expense.getGroupId())
+                .entityId(expense.getId())
+                .description(expense.getDescription())
+                .amount(expense.getAmount())
+                .currency(expense.getCurrency())
+                .build(), involved);
+    }
+
+    /**
+     * Records a settlement.
+     *
+     * @param settlement The saved settlement
+     * @param actorId    ID of the user recording it
+     */
+    public void recordSettlement(Settlement settlement, Long actorId) {
+        record(Activity.builder()
+                .type(ActivityType.SETTLEMENT_CREATED)
+                .actorId(actorId)
+                .groupId(settlement.getGroupId())
+                .entityId(settlement.getId())
+                .subjectUserId(settlement.getToUserId())
+                .amount(settlement.getAmount())
+                .currency(settlement.getCurrency())
+                .build(), Set.of(settlement.getFromUserId(), settlement.getToUserId()));
+    }
+
+    /**
+     * Records a membership change. The member is always told, even after
+     * leaving the group.
+     *
+     * @param type    MEMBER_ADDED or MEMBER_REMOVED
+     * @param groupId Group ID
+     * @param userId  ID of the member added or removed
+     * @param actorId ID of the user making the change
+     */
+    public void recordMembership(ActivityType type, Long groupId, Long userId, Long actorId) {
+        record(Activity.builder()
+                .type(type)
+                .actorId(actorId)
+                .groupId(groupId)
+                .entityId(userId)
+                .subjectUserId(userId)
+                .build(), Set.of(userId));
+    }
+
+    /**
+     * Reads a page of a user's feed.
+     *
+     * @param userId User ID
+     * @param before Return activities older than this activity ID; null for
+     *               the newest page
+     * @param limit  Page size (at most 100)
+     * @return The page and the cursor of the next one
+     */
+    @Transactional(readOnly = true)
+    public ActivityPage getFeed(Long userId, Long before, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<Activity> delivered = activityRepository.findFeed(userId, cursor, page);
+        List<Activity> fromGroups = activityRepository.findUnfannedForMember(userId, cursor, page);
+
+        // Merge the two id-descending lists, dropping activities present in both
+        List<Activity> merged = new ArrayList<>(Math.min(delivered.size() + fromGroups.size(), size + 1));
+        int i = 0;
+        int j = 0;
+        while (merged.size() <= size && (i < delivered.size() || j < fromGroups.size())) {
+            Activity next;
+            if (j >= fromGroups.size()
+                    || (i < delivered.size() && delivered.get(i).getId() >= fromGroups.get(j).getId())) {
+                next = delivered.get(i++);
+                if (j < fromGroups.size() && fromGroups.get(j).getId().equals(next.getId())) {
+                    j++;
+                }
+            } else {
+                next = fromGroups.get(j++);
+            }
+            merged.add(next);
+        }
+
+        boolean hasMore = merged.size() > size;
+        List<Activity> items = hasMore ? merged.subList(0, size) : merged;
+        return ActivityPage.builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    private void record(Activity activity, Set<Long> involved) {
+        Set<Long> recipients = new TreeSet<>(involved);
+        boolean fanOut = true;
+        if (activity.getGroupId() != null) {
+            // Recipients come from the database, in this transaction, so that members
+            // removed or added on another node are not fanned out to or skipped
+            List<Long> members = groupMemberRepository.findUserIdsByGroupId(activity.getGroupId(),
+                    PageRequest.of(0, maxFanOut + 1));
+            if (members.size() > maxFanOut) {
+                // Members read it through the group; only the involved users get feed rows
+                fanOut = false;
+            } else {
+                recipients.addAll(members);
+            }
+        }
+        activity.setFannedOut(fanOut);
+        activity = activityRepository.save(activity);
+        activityRepository.fanOut(activity.getId(), recipients);
+    }
+}
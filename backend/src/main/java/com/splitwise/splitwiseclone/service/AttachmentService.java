@@ -0,0 +1,226 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.ExpenseAttachment;
+import com.splitwise.splitwiseclone.repository.ExpenseAttachmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Receipt attachments on expenses. Uploads are streamed into the
+ * {@link ContentStore} before any database work, so no connection or
+ * transaction is held while bytes arrive; the attachment row is written
+ * afterwards. Blobs are shared between attachments with identical content and
+ * are only deleted by the orphan sweep, once no row references them and they
+ * have not been touched for a grace period.
+ */
+@Service
+@Slf4j
+public class AttachmentService {
+
+    private static final int SWEEP_BATCH = 500;
+
+    private final ExpenseAttachmentRepository attachmentRepository;
+    private final ExpenseService expenseService;
+    private final GroupService groupService;
+    private final ContentStore contentStore;
+
+    private final long maxSize;
+    private final Set<String> allowedContentTypes;
+    private final Duration orphanGracePeriod;
+
+    public AttachmentService(
+            ExpenseAttachmentRepository attachmentRepository,
+            ExpenseService expenseService,
+            GroupService groupService,
+            ContentStore contentStore,
+            @Value("${attachments.max-size:10485760}") long maxSize,
+            @Value("${attachments.allowed-content-types:image/jpeg,image/png,image/webp,image/heic,application/pdf}")
+            Set<String> allowedContentTypes,
+            @Value("${attachments.orphan-grace-period:PT1H}") Duration orphanGracePeriod) {
+        this.attachmentRepository = attachmentRepository;
+        this.expenseService = expenseService;
+        this.groupService = groupService;
+        this.contentStore = contentStore;
+        this.maxSize = maxSize;
+        this.allowedContentTypes = allowedContentTypes;
+        this.orphanGracePeriod = orphanGracePeriod;
+    }
+
+    /**
+     * Attaches a file to an expense.
+     *
+     * @param expenseId   Expense ID
+     * @param userId      ID of the uploading user
+     * @param fileName    Original file name
+     * @param contentType MIME type of the content
+     * @param content     Content stream, read to the end
+     * @return The created attachment
+     * @throws IllegalArgumentException if the expense does not exist or the
+     *                                  content is rejected
+     * @throws SecurityException        if the user cannot see the expense
+     * @throws IOException              on storage failure
+     */
+    public ExpenseAttachment upload(Long expenseId, Long userId, String fileName, String contentType,
+            InputStream content) throws IOException {
+        Expense expense = expenseService.getExpenseById(expenseId);
+        checkAccess(expense, userId);
+
+        String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase() : "";
+        if (!allowedContentTypes.contains(type)) {
+            throw new IllegalArgumentException("Unsupported attachment type: " + type);
+        }
+
+        ContentStore.StoredContent stored = contentStore.store(content, maxSize);
+        ExpenseAttachment attachment = attachmentRepository.save(ExpenseAttachment.builder()
+                .expenseId(expenseId)
+                .contentHash(stored.hash())
+                .fileName(sanitizeFileName(fileName))
+                .contentType(type)
+                .size(stored.size())
+                .uploadedBy(userId)
+                .build());
+
+        log.info("Stored attachment {} on expense {}: {} bytes, content {}", attachment.getId(), expenseId,
+                stored.size(), stored.hash());
+        return attachment;
+    }
+
+    /**
+     * Lists the attachments of an expense.
+     *
+     * @param expenseId Expense ID
+     * @param userId    ID of the requesting user
+     * @return Attachments, oldest first
+     */
+    public List<ExpenseAttachment> getAttachments(Long expenseId, Long userId) {
+        checkAccess(expenseService.getExpenseById(expenseId), userId);
+        return attachmentRepository.findByExpenseIdOrderByIdAsc(expenseId);
+    }
+
+    /**
+     * Gets an attachment of an expense.
+     *
+     * @param expenseId    Expense ID
+     * @param attachmentId Attachment ID
+     * @param userId       ID of the requesting user
+     * @return The attachment
+     */
+    public ExpenseAttachment getAttachment(Long expenseId, Long attachmentId, Long userId) {
+        checkAccess(expenseService.getExpenseById(expenseId), userId);
+        return attachmentRepository.findByIdAndExpenseId(attachmentId, expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Attachment not found"));
+    }
+
+    /**
+     * Location of an attachment's content.
+     *
+     * @param attachment Attachment
+     * @return Path of the stored blob
+     */
+    public Path contentPath(ExpenseAttachment attachment) {
+        return contentStore.path(attachment.getContentHash());
+    }
+
+    /**
+     * Removes an attachment. Only the uploader or the payer of the expense can
+     * remove it; the blob is left to the orphan sweep.
+     *
+     * @param expenseId    Expense ID
+     * @param attachmentId Attachment ID
+     * @param userId       ID of the requesting user
+     */
+    public void deleteAttachment(Long expenseId, Long attachmentId, Long userId) {
+        Expense expense = expenseService.getExpenseById(expenseId);
+        ExpenseAttachment attachment = attachmentRepository.findByIdAndExpenseId(attachmentId, expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Attachment not found"));
+        if (!attachment.getUploadedBy().equals(userId) && !expense.getPaidBy().equals(userId)) {
+            throw new SecurityException("You do not have permission to delete this attachment");
+        }
+        attachmentRepository.delete(attachment);
+    }
+
+    /**
+     * Deletes stored blobs that no attachment references and that have not
+     * been written for the grace period (which covers uploads whose row is not
+     * committed yet).
+     */
+    @Scheduled(fixedDelayString = "${attachments.sweep-interval:3600000}",
+            initialDelayString = "${attachments.sweep-interval:3600000}")
+    public void sweepOrphans() {
+        long cutoff = System.currentTimeMillis() - orphanGracePeriod.toMillis();
+        int deleted = 0;
+        List<Path> batch = new ArrayList<>(SWEEP_BATCH);
+        try (Stream<Path> blobs = contentStore.list()) {
+            for (Path blob : (Iterable<Path>) blobs::iterator) {
+                if (Files.getLastModifiedTime(blob).toMillis() < cutoff) {
+                    batch.add(blob);
+                }
+                if (batch.size() == SWEEP_BATCH) {
+                    deleted += deleteUnreferenced(batch, cutoff);
+                    batch.clear();
+                }
+            }
+            deleted += deleteUnreferenced(batch, cutoff);
+        } catch (IOException e) {
+            log.error("Attachment orphan sweep failed: {}", e.getMessage(), e);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced attachment blobs", deleted);
+        }
+    }
+
+    private int deleteUnreferenced(List<Path> blobs, long cutoff) throws IOException {
+        if (blobs.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenced = new HashSet<>(attachmentRepository.findReferencedHashes(
+                blobs.stream().map(blob -> blob.getFileName().toString()).toList()));
+        int deleted = 0;
+        for (Path blob : blobs) {
+            // Re-check the timestamp: an identical upload may have reused the blob meanwhile
+            if (!referenced.contains(blob.getFileName().toString())
+                    && Files.getLastModifiedTime(blob).toMillis() < cutoff && Files.deleteIfExists(blob)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void checkAccess(Expense expense, Long userId) {
+        if (expense.getPaidBy().equals(userId)) {
+            return;
+        }
+        if (expense.getGroupId() != null && groupService.isUserMemberOfGroup(userId, expense.getGroupId())) {
+            return;
+        }
+        boolean participant = expenseService.getExpenseSplits(expense.getId()).stream()
+                .anyMatch(split -> split.getUserId().equals(userId));
+        if (!participant) {
+            throw new SecurityException("You do not have access to this expense");
+        }
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        if (!StringUtils.hasText(fileName)) {
+            return "attachment";
+        }
+        String name = StringUtils.getFilename(fileName.replace('\\', '/'));
+        name = name.replaceAll("[\\p{Cntrl}\"]", "_");
+        return name.length() > 255 ? name.substring(name.length() - 255) : name;
+    }
+}
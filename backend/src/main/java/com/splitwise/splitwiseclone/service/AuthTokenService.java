@@ -0,0 +1,169 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.AuthTokens;
+import com.splitwise.splitwiseclone.entity.RefreshToken;
+import com.splitwise.splitwiseclone.entity.User;
+import com.splitwise.splitwiseclone.repository.RefreshTokenRepository;
+import com.splitwise.splitwiseclone.repository.UserRepository;
+import com.splitwise.splitwiseclone.security.JwtUtils;
+import com.splitwise.splitwiseclone.security.TokenRevocationList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues, rotates and revokes tokens. Access tokens are short-lived JWTs;
+ * refresh tokens are random opaque strings stored as SHA-256 hashes. A refresh
+ * token can be used once: refreshing revokes it and issues a new pair, and
+ * presenting an already used token revokes every refresh token of the user,
+ * since it means the token has leaked.
+ */
+@Service
+@Slf4j
+@Transactional
+public class AuthTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationList revocationList;
+    private final SecureRandom random = new SecureRandom();
+
+    private final long refreshExpirationMs;
+
+    public AuthTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            JwtUtils jwtUtils,
+            TokenRevocationList revocationList,
+            @Value("${jwt.refresh-expiration:2592000000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+        this.revocationList = revocationList;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Issues a new access and refresh token pair for a user.
+     *
+     * @param user Authenticated user
+     * @return The tokens
+     */
+    public AuthTokens issueTokens(User user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(refreshToken))
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)))
+                .build());
+
+        return AuthTokens.builder()
+                .userId(user.getId())
+                .accessToken(jwtUtils.generateToken(user.getEmail(), user.getId()))
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair. The presented token is
+     * revoked.
+     *
+     * @param refreshToken Refresh token
+     * @return The new tokens
+     * @throws IllegalArgumentException if the token is unknown, expired or
+     *                                  already used
+     */
+    // Keep the reuse-triggered revocation when rejecting the token
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public AuthTokens refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        if (stored.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeAllByUserId(stored.getUserId(), LocalDateTime.now());
+            log.warn("Reuse of refresh token {} for user {}, revoked {} refresh tokens", stored.getId(),
+                    stored.getUserId(), revoked);
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        if (stored.isExpired()) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        stored.setRevokedAt(LocalDateTime.now());
+        refreshTokenRepository.save(stored);
+
+        return issueTokens(user);
+    }
+
+    /**
+     * Logs a session out: revokes the access token used for the request and,
+     * if given, the session's refresh token.
+     *
+     * @param accessToken  Access token of the request
+     * @param refreshToken Refresh token, may be null
+     * @param userId       ID of the authenticated user
+     */
+    public void logout(String accessToken, String refreshToken, Long userId) {
+        String jti = jwtUtils.extractTokenId(accessToken);
+        if (jti != null) {
+            revocationList.revoke(jti, jwtUtils.extractExpiration(accessToken));
+        }
+        if (refreshToken != null) {
+            refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                    .filter(token -> token.getUserId().equals(userId) && token.getRevokedAt() == null)
+                    .ifPresent(token -> {
+                        token.setRevokedAt(LocalDateTime.now());
+                        refreshTokenRepository.save(token);
+                    });
+        }
+    }
+
+    /**
+     * Revokes every refresh token of a user, e.g. after a password reset.
+     * Access tokens already issued stay valid until they expire.
+     *
+     * @param userId User ID
+     */
+    public void revokeAllRefreshTokens(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        log.info("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    /**
+     * Deletes expired refresh tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-prune-interval:3600000}",
+            initialDelayString = "${jwt.refresh-prune-interval:3600000}")
+    public void pruneExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
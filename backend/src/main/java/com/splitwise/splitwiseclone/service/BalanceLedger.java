@@ -0,0 +1,116 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.Balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory pairwise netting of debts, with the same semantics as applying
+ * BalanceService's updateOrCreateBalance row by row: each pair of users ends up
+ * with at most one balance, in the direction of the net debt, and a pair that
+ * nets to zero disappears. A balance keeps the currency it was created with
+ * until the debt changes direction.
+ * <p>
+ * Not thread-safe; build one per recalculation.
+ */
+public class BalanceLedger {
+
+    private final Map<Pair, Entry> entries = new HashMap<>();
+
+    /**
+     * Applies one expense: every participant other than the payer owes the
+     * payer their split amount.
+     *
+     * @param paidBy   ID of the user who paid
+     * @param splits   Map of userId to amount owed
+     * @param currency Currency code
+     */
+    public void addExpense(Long paidBy, Map<Long, BigDecimal> splits, String currency) {
+        for (Map.Entry<Long, BigDecimal> split : splits.entrySet()) {
+            if (!split.getKey().equals(paidBy)) {
+                add(split.getKey(), paidBy, split.getValue(), currency);
+            }
+        }
+    }
+
+    /**
+     * Records that one user owes another an amount.
+     *
+     * @param fromUserId User who owes
+     * @param toUserId   User who is owed
+     * @param amount     Amount owed
+     * @param currency   Currency code
+     */
+    public void add(Long fromUserId, Long toUserId, BigDecimal amount, String currency) {
+        boolean forward = fromUserId < toUserId;
+        Pair pair = forward ? new Pair(fromUserId, toUserId) : new Pair(toUserId, fromUserId);
+        // Positive net means the lower user id owes the higher one
+        BigDecimal delta = forward ? amount : amount.negate();
+
+        Entry entry = entries.get(pair);
+        if (entry == null) {
+            if (delta.signum() != 0) {
+                entries.put(pair, new Entry(delta, currency));
+            }
+            return;
+        }
+
+        BigDecimal net = entry.net.add(delta);
+        if (net.signum() == 0) {
+            entries.remove(pair);
+        } else {
+            if (net.signum() != entry.net.signum()) {
+                // The debt changed direction: a new balance in the new currency
+                entry.currency = currency;
+            }
+            entry.net = net;
+        }
+    }
+
+    /**
+     * Number of non-zero pairwise balances.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Materializes the netted debts as new (unsaved) balance entities.
+     *
+     * @param groupId Group the balances belong to
+     * @return One balance per pair with a non-zero debt
+     */
+    public List<Balance> toBalances(Long groupId) {
+        List<Balance> balances = new ArrayList<>(entries.size());
+        for (Map.Entry<Pair, Entry> e : entries.entrySet()) {
+            Pair pair = e.getKey();
+            Entry entry = e.getValue();
+            boolean lowOwes = entry.net.signum() > 0;
+            balances.add(Balance.builder()
+                    .fromUserId(lowOwes ? pair.low : pair.high)
+                    .toUserId(lowOwes ? pair.high : pair.low)
+                    .amount(entry.net.abs())
+                    .currency(entry.currency)
+                    .groupId(groupId)
+                    .build());
+        }
+        return balances;
+    }
+
+    private record Pair(long low, long high) {
+    }
+
+    private static final class Entry {
+        private BigDecimal net;
+        private String currency;
+
+        private Entry(BigDecimal net, String currency) {
+            this.net = net;
+            this.currency = currency;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.BalancePipelineStats;
+import com.splitwise.splitwiseclone.entity.BalanceOutboxEntry;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.enums.BalanceOutboxType;
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import com.splitwise.splitwiseclone.repository.BalanceOutboxRepository;
+import com.splitwise.splitwiseclone.repository.ExpenseRepository;
+import com.splitwise.splitwiseclone.repository.ExpenseSplitRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Optional asynchronous balance pipeline. When enabled, expense writes commit
+ * the expense, its splits and a balance_outbox row, and return immediately.
+ * Each group is owned by exactly one worker thread (groups are striped over a
+ * fixed set of single-threaded executors), which drains the group's outbox in
+ * batches and applies the balance deltas, so balance rows of a group are never
+ * written concurrently by the pipeline. Across instances, a batch is claimed by
+ * locking its outbox rows; a node sweeping the same group waits for the claim
+ * and then only sees the entries that are left. Settlements still write
+ * balances directly; Balance's version column turns a concurrent update into
+ * a failed batch that the next sweep retries, instead of a lost update.
+ * <p>
+ * Expenses whose delta is still queued are flagged balancePending and are
+ * ignored by full recalculations, so a delta is never applied twice.
+ */
+@Service
+@Slf4j
+public class BalancePipelineService {
+
+    private final BalanceOutboxRepository outboxRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final BalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final ExecutorService[] writers;
+    private final Set<Long> scheduledGroups = ConcurrentHashMap.newKeySet();
+    private final Object appliedMonitor = new Object();
+    private final AtomicLong appliedEntries = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile BalancePipelineStats lastSweepStats;
+
+    public BalancePipelineService(
+            BalanceOutboxRepository outboxRepository,
+            ExpenseRepository expenseRepository,
+            ExpenseSplitRepository expenseSplitRepository,
+            BalanceService balanceService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${balances.async.enabled:false}") boolean enabled,
+            @Value("${balances.async.workers:4}") int workers,
+            @Value("${balances.async.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        this.balanceService = balanceService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.writers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "balance-writer-" + i;
+            writers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Whether new group expenses should be applied asynchronously.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the balance delta of a freshly persisted (balancePending) expense.
+     * Must be called inside the transaction that created the expense.
+     *
+     * @param expense The expense
+     * @return Read-your-writes token
+     */
+    public Long enqueueDelta(Expense expense) {
+        return enqueue(expense.getGroupId(), expense.getId(), BalanceOutboxType.DELTA);
+    }
+
+    /**
+     * Queues a full recalculation of a group's balances, ordered after every
+     * delta already queued for the group.
+     *
+     * @param groupId Group ID
+     * @return Read-your-writes token
+     */
+    public Long enqueueRebuild(Long groupId) {
+        return enqueue(groupId, null, BalanceOutboxType.REBUILD);
+    }
+
+    /**
+     * Blocks until the writer has applied the given token for the group, or
+     * until the timeout elapses. A token is applied once no outbox row of the
+     * group up to it is left: the caller got the token after its row
+     * committed, and tokens are ids from an identity column, so a lower id can
+     * commit after a higher one has already been applied. A high-water mark of
+     * applied tokens would report such a token as applied too early.
+     *
+     * @param groupId   Group ID
+     * @param token     Token returned by a previous write
+     * @param timeoutMs Maximum time to wait
+     * @return true if the write is visible in balances
+     */
+    public boolean awaitApplied(Long groupId, Long token, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!isApplied(groupId, token)) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            synchronized (appliedMonitor) {
+                try {
+                    appliedMonitor.wait(Math.min(remaining, 100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lag and throughput figures for monitoring.
+     */
+    public BalancePipelineStats getStats() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BalancePipelineStats.GroupLag> groups = outboxRepository.summarizePendingByGroup().stream()
+                .map(row -> BalancePipelineStats.GroupLag.builder()
+                        .groupId((Long) row[0])
+                        .pendingEntries((Long) row[1])
+                        .lagMs(Duration.between((LocalDateTime) row[2], now).toMillis())
+                        .build())
+                .sorted(Comparator.comparingLong(BalancePipelineStats.GroupLag::getLagMs).reversed())
+                .collect(Collectors.toList());
+
+        return BalancePipelineStats.builder()
+                .enabled(enabled)
+                .pendingEntries(groups.stream().mapToLong(BalancePipelineStats.GroupLag::getPendingEntries).sum())
+                .pendingGroups(groups.size())
+                .maxLagMs(groups.isEmpty() ? 0 : groups.get(0).getLagMs())
+                .appliedEntries(appliedEntries.get())
+                .failedBatches(failedBatches.get())
+                .groups(groups)
+                .build();
+    }
+
+    /**
+     * Stats taken by the last sweep, so monitoring reads them without querying
+     * the outbox; at most one sweep interval old.
+     */
+    public BalancePipelineStats getLastSweepStats() {
+        BalancePipelineStats stats = lastSweepStats;
+        return stats != null ? stats : BalancePipelineStats.builder().enabled(enabled).groups(List.of()).build();
+    }
+
+    /**
+     * Outbox entries applied since startup.
+     */
+    public long getAppliedEntries() {
+        return appliedEntries.get();
+    }
+
+    /**
+     * Batches that failed and were left for the sweep since startup.
+     */
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Picks up entries left behind by a restart or a failed batch, and keeps
+     * the lag snapshot for monitoring from the same query.
+     */
+    @Scheduled(fixedDelayString = "${balances.async.sweep-interval:5000}")
+    public void sweep() {
+        BalancePipelineStats stats = getStats();
+        lastSweepStats = stats;
+        stats.getGroups().forEach(group -> schedule(group.getGroupId()));
+    }
+
+    private Long enqueue(Long groupId, Long expenseId, BalanceOutboxType type) {
+        BalanceOutboxEntry entry = outboxRepository.save(BalanceOutboxEntry.builder()
+                .groupId(groupId)
+                .expenseId(expenseId)
+                .type(type)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(groupId);
+                }
+            });
+        } else {
+            schedule(groupId);
+        }
+        return entry.getId();
+    }
+
+    private void schedule(Long groupId) {
+        if (scheduledGroups.add(groupId)) {
+            writers[Math.floorMod(groupId.hashCode(), writers.length)].execute(() -> drain(groupId));
+        }
+    }
+
+    private void drain(Long groupId) {
+        scheduledGroups.remove(groupId);
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> applyBatch(groupId)))) {
+                synchronized (appliedMonitor) {
+                    appliedMonitor.notifyAll();
+                }
+            }
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            log.error("Balance writer failed for group {}, will retry on next sweep: {}", groupId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies one batch of a group's outbox.
+     *
+     * @return false if the outbox was empty
+     */
+    private boolean applyBatch(Long groupId) {
+        List<BalanceOutboxEntry> batch = outboxRepository.findByGroupIdForUpdate(groupId,
+                PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        List<Long> expenseIds = batch.stream()
+                .filter(entry -> entry.getType() == BalanceOutboxType.DELTA)
+                .map(BalanceOutboxEntry::getExpenseId)
+                .collect(Collectors.toList());
+        if (!expenseIds.isEmpty()) {
+            expenseRepository.markBalancesApplied(expenseIds);
+        }
+
+        boolean rebuild = batch.stream().anyMatch(entry -> entry.getType() == BalanceOutboxType.REBUILD);
+        if (rebuild) {
+            // A rebuild reads every applied expense, which now includes this batch's deltas
+            balanceService.recalculateBalancesForGroup(groupId);
+        } else {
+            Map<Long, List<ExpenseSplit>> splitsByExpense = expenseSplitRepository.findByExpenseIdIn(expenseIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(ExpenseSplit::getExpenseId));
+            // Deleted expenses are simply skipped; their REBUILD entry follows
+            for (Expense expense : expenseRepository.findAllById(expenseIds)) {
+                Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+                for (ExpenseSplit split : splitsByExpense.getOrDefault(expense.getId(), List.of())) {
+                    splits.put(split.getUserId(), split.getAmount());
+                }
+                balanceService.updateBalancesForExpense(expense.getId(), expense.getPaidBy(), splits,
+                        expense.getCurrency(), groupId);
+            }
+        }
+
+        outboxRepository.deleteAllInBatch(batch);
+        appliedEntries.addAndGet(batch.size());
+
+        eventPublisher.publishEvent(GroupChangeEvent.builder()
+                .groupId(groupId)
+                .type(GroupChangeType.BALANCES_UPDATED)
+                .build());
+
+        return true;
+    }
+
+    private boolean isApplied(Long groupId, Long token) {
+        return !outboxRepository.existsByGroupIdAndIdLessThanEqual(groupId, token);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.splitwise.splitwiseclone.service;
 
+import com.splitwise.splitwiseclone.dto.SettlementRequest;
+import com.splitwise.splitwiseclone.dto.SettlementSummary;
 import com.splitwise.splitwiseclone.entity.Balance;
 import com.splitwise.splitwiseclone.entity.Expense;
 import com.splitwise.splitwiseclone.entity.ExpenseSplit;
 import com.splitwise.splitwiseclone.entity.Settlement;
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
 import com.splitwise.splitwiseclone.repository.BalanceRepository;
 import com.splitwise.splitwiseclone.repository.ExpenseRepository;
 import com.splitwise.splitwiseclone.repository.ExpenseSplitRepository;
 import com.splitwise.splitwiseclone.repository.SettlementRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,14 +33,18 @@ import java.util.*;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "splitwise.service.balance", description = "BalanceService method latency")
 public class BalanceService {
 
     private final BalanceRepository balanceRepository;
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository; // Kept one instance
     private final SettlementRepository settlementRepository;
-    private final com.splitwise.splitwiseclone.repository.UserRepository userRepository;
-    private final com.splitwise.splitwiseclone.repository.GroupRepository groupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GroupMembershipIndex membershipIndex;
+    private final ActivityFeedService activityFeedService;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Update balances after a new expense is created
@@ -60,6 +72,22 @@ public class BalanceService {
         }
     }
 
+    /**
+     * Apply the netted effect of several expenses at once, touching each pair
+     * of users once instead of once per expense
+     *
+     * @param groupId Group the expenses belong to (null for personal expenses)
+     * @param deltas  Ledger holding the expenses' splits
+     */
+    public void applyBalanceDeltas(Long groupId, BalanceLedger deltas) {
+        log.info("Applying {} netted balance deltas for group: {}", deltas.size(), groupId);
+
+        for (Balance delta : deltas.toBalances(groupId)) {
+            updateOrCreateBalance(delta.getFromUserId(), delta.getToUserId(), delta.getAmount(),
+                    delta.getCurrency(), groupId);
+        }
+    }
+
     /**
      * Recalculate all balances for a group from scratch (idempotent operation)
      * This ensures consistency after expense updates/deletions
@@ -67,27 +95,57 @@ public class BalanceService {
     public void recalculateBalancesForGroup(Long groupId) {
         log.info("Recalculating balances for group: {}", groupId);
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            doRecalculateBalancesForGroup(groupId);
+        } finally {
+            sample.stop(Timer.builder("splitwise.balances.recalculation")
+                    .description("Full balance recalculation of a group")
+                    .tag("groupSize", groupSizeBucket(membershipIndex.memberCount(groupId)))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void doRecalculateBalancesForGroup(Long groupId) {
         // Clear existing balances for this group
         balanceRepository.deleteByGroupId(groupId);
+        balanceRepository.flush();
 
-        // Get all expenses for the group
-        List<Expense> expenses = expenseRepository.findByGroupId(groupId);
+        // Get all expenses for the group (pending ones are applied later by the async writer)
+        List<Expense> expenses = expenseRepository.findAppliedByGroupId(groupId);
+        if (expenses.isEmpty()) {
+            return;
+        }
 
-        // Recalculate from scratch
-        for (Expense expense : expenses) {
-            List<ExpenseSplit> splits = expenseSplitRepository.findByExpenseId(expense.getId());
+        Map<Long, List<ExpenseSplit>> splitsByExpense = expenseSplitRepository
+                .findByExpenseIdIn(expenses.stream().map(Expense::getId).toList())
+                .stream()
+                .collect(java.util.stream.Collectors.groupingBy(ExpenseSplit::getExpenseId));
 
-            for (ExpenseSplit split : splits) {
+        // Net every expense in memory, then write one row per pair
+        BalanceLedger ledger = new BalanceLedger();
+        for (Expense expense : expenses) {
+            for (ExpenseSplit split : splitsByExpense.getOrDefault(expense.getId(), List.of())) {
                 if (!split.getUserId().equals(expense.getPaidBy())) {
-                    updateOrCreateBalance(
-                            split.getUserId(),
-                            expense.getPaidBy(),
-                            split.getAmount(),
-                            expense.getCurrency(),
-                            expense.getGroupId());
+                    ledger.add(split.getUserId(), expense.getPaidBy(), split.getAmount(), expense.getCurrency());
                 }
             }
         }
+        balanceRepository.saveAll(ledger.toBalances(groupId));
+    }
+
+    private static String groupSizeBucket(int members) {
+        if (members <= 5) {
+            return "1-5";
+        } else if (members <= 20) {
+            return "6-20";
+        } else if (members <= 100) {
+            return "21-100";
+        } else if (members <= 1000) {
+            return "101-1000";
+        }
+        return "1000+";
     }
 
     /**
@@ -152,8 +210,7 @@ public class BalanceService {
      */
     @Transactional(readOnly = true)
     public List<com.splitwise.splitwiseclone.dto.BalanceResponse> getUserBalances(Long userId) {
-        List<Balance> balances = balanceRepository.findByUserId(userId);
-        return mapToBalanceResponses(balances);
+        return balanceRepository.findResponsesByUserId(userId);
     }
 
     /**
@@ -161,32 +218,7 @@ public class BalanceService {
      */
     @Transactional(readOnly = true)
     public List<com.splitwise.splitwiseclone.dto.BalanceResponse> getGroupBalances(Long groupId) {
-        List<Balance> balances = balanceRepository.findByGroupId(groupId);
-        return mapToBalanceResponses(balances);
-    }
-
-    private List<com.splitwise.splitwiseclone.dto.BalanceResponse> mapToBalanceResponses(List<Balance> balances) {
-        return balances.stream().map(balance -> {
-            String fromUserName = userRepository.findById(balance.getFromUserId())
-                    .map(com.splitwise.splitwiseclone.entity.User::getName).orElse("Unknown");
-            String toUserName = userRepository.findById(balance.getToUserId())
-                    .map(com.splitwise.splitwiseclone.entity.User::getName).orElse("Unknown");
-            String groupName = balance.getGroupId() != null ? groupRepository.findById(balance.getGroupId())
-                    .map(com.splitwise.splitwiseclone.entity.Group::getName).orElse(null)
-                    : null;
-
-            return com.splitwise.splitwiseclone.dto.BalanceResponse.builder()
-                    .id(balance.getId())
-                    .fromUserId(balance.getFromUserId())
-                    .fromUserName(fromUserName)
-                    .toUserId(balance.getToUserId())
-                    .toUserName(toUserName)
-                    .amount(balance.getAmount())
-                    .currency(balance.getCurrency())
-                    .groupId(balance.getGroupId())
-                    .groupName(groupName)
-                    .build();
-        }).collect(java.util.stream.Collectors.toList());
+        return balanceRepository.findResponsesByGroupId(groupId);
     }
 
     /**
@@ -251,14 +283,163 @@ public class BalanceService {
                 .groupId(groupId)
                 .build();
 
-        return settlementRepository.save(settlement);
+        settlement = settlementRepository.save(settlement);
+        activityFeedService.recordSettlement(settlement, fromUserId);
+        outboxService.publish("settlement.created", "settlement", settlement.getId(), groupId, settlement);
+
+        if (groupId != null) {
+            eventPublisher.publishEvent(GroupChangeEvent.builder()
+                    .groupId(groupId)
+                    .type(GroupChangeType.SETTLEMENT_CREATED)
+                    .entityId(settlement.getId())
+                    .actorId(fromUserId)
+                    .build());
+        }
+
+        return settlement;
+    }
+
+    /**
+     * Settle every balance between two users, in every group and in both
+     * directions: the debtor of each balance pays it in full
+     *
+     * @param userId           One of the users
+     * @param otherUserId      The other user
+     * @param requestingUserId User asking for the settlement (must be one of them)
+     * @return The recorded settlements, one per balance
+     */
+    public List<Settlement> settleAllBetween(Long userId, Long otherUserId, Long requestingUserId) {
+        log.info("Settling all balances between {} and {}", userId, otherUserId);
+
+        if (!requestingUserId.equals(userId) && !requestingUserId.equals(otherUserId)) {
+            throw new SecurityException("You can only settle your own balances");
+        }
+        if (userId.equals(otherUserId)) {
+            throw new IllegalArgumentException("Cannot settle with yourself");
+        }
+
+        List<Balance> balances = balanceRepository.findAmongUsersForUpdate(List.of(userId, otherUserId));
+        if (balances.isEmpty()) {
+            throw new IllegalArgumentException("No balance found between these users");
+        }
+
+        List<Settlement> settlements = new ArrayList<>(balances.size());
+        for (Balance balance : balances) {
+            settlements.add(Settlement.builder()
+                    .fromUserId(balance.getFromUserId())
+                    .toUserId(balance.getToUserId())
+                    .amount(balance.getAmount())
+                    .currency(balance.getCurrency())
+                    .groupId(balance.getGroupId())
+                    .build());
+        }
+        // Everything is paid off, so every row goes in one bulk delete
+        balanceRepository.deleteAllByIdInBatch(balances.stream().map(Balance::getId).toList());
+
+        return recordSettlements(settlements, requestingUserId);
+    }
+
+    /**
+     * Record several settlements in one transaction: if any of them does not
+     * match a balance or exceeds it, none is applied
+     *
+     * @param requests         The settlements
+     * @param requestingUserId User asking for the settlement (must be a party to each)
+     * @return The recorded settlements, in request order
+     */
+    public List<Settlement> settleBatch(List<SettlementRequest> requests, Long requestingUserId) {
+        log.info("Recording batch of {} settlements", requests.size());
+
+        Set<Long> userIds = new HashSet<>();
+        for (SettlementRequest request : requests) {
+            if (!requestingUserId.equals(request.getFromUserId()) && !requestingUserId.equals(request.getToUserId())) {
+                throw new SecurityException("You can only settle your own balances");
+            }
+            userIds.add(request.getFromUserId());
+            userIds.add(request.getToUserId());
+        }
+
+        Map<List<Long>, Balance> balancesByKey = new HashMap<>();
+        Map<Long, Balance> balancesById = new HashMap<>();
+        for (Balance balance : balanceRepository.findAmongUsersForUpdate(userIds)) {
+            balancesById.put(balance.getId(), balance);
+            balancesByKey.put(Arrays.asList(balance.getFromUserId(), balance.getToUserId(), balance.getGroupId()),
+                    balance);
+        }
+
+        // Work on remaining amounts first so repeated (from, to, group) entries are checked cumulatively
+        Map<Long, BigDecimal> remaining = new LinkedHashMap<>();
+        List<Settlement> settlements = new ArrayList<>(requests.size());
+        for (SettlementRequest request : requests) {
+            Balance balance = balancesByKey.get(
+                    Arrays.asList(request.getFromUserId(), request.getToUserId(), request.getGroupId()));
+            BigDecimal left = balance == null ? null : remaining.getOrDefault(balance.getId(), balance.getAmount());
+            if (left == null || left.signum() == 0) {
+                throw new IllegalArgumentException("No balance found between users " + request.getFromUserId()
+                        + " and " + request.getToUserId());
+            }
+            if (request.getAmount().compareTo(left) > 0) {
+                throw new IllegalArgumentException("Settlement amount exceeds balance");
+            }
+            remaining.put(balance.getId(), left.subtract(request.getAmount()));
+
+            settlements.add(Settlement.builder()
+                    .fromUserId(request.getFromUserId())
+                    .toUserId(request.getToUserId())
+                    .amount(request.getAmount())
+                    .currency(request.getCurrency())
+                    .groupId(request.getGroupId())
+                    .build());
+        }
+
+        // Settled rows go in one bulk delete; partially settled ones are flushed as a JDBC batch of updates
+        List<Long> settledIds = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> entry : remaining.entrySet()) {
+            if (entry.getValue().signum() == 0) {
+                settledIds.add(entry.getKey());
+            } else {
+                balancesById.get(entry.getKey()).setAmount(entry.getValue());
+            }
+        }
+        if (!settledIds.isEmpty()) {
+            balanceRepository.deleteAllByIdInBatch(settledIds);
+        }
+
+        return recordSettlements(settlements, requestingUserId);
+    }
+
+    private List<Settlement> recordSettlements(List<Settlement> settlements, Long actorId) {
+        List<Settlement> saved = settlementRepository.saveAll(settlements);
+        for (Settlement settlement : saved) {
+            activityFeedService.recordSettlement(settlement, actorId);
+            outboxService.publish("settlement.created", "settlement", settlement.getId(), settlement.getGroupId(),
+                    settlement);
+        }
+
+        // One event per group touched, not per settlement
+        Map<Long, List<Long>> settlementIdsByGroup = new LinkedHashMap<>();
+        for (Settlement settlement : saved) {
+            if (settlement.getGroupId() != null) {
+                settlementIdsByGroup.computeIfAbsent(settlement.getGroupId(), id -> new ArrayList<>())
+                        .add(settlement.getId());
+            }
+        }
+        settlementIdsByGroup.forEach((groupId, settlementIds) -> eventPublisher.publishEvent(GroupChangeEvent.builder()
+                .groupId(groupId)
+                .type(GroupChangeType.SETTLEMENT_CREATED)
+                .entityId(settlementIds.get(settlementIds.size() - 1))
+                .entityIds(settlementIds)
+                .actorId(actorId)
+                .build()));
+
+        return saved;
     }
 
     /**
      * Get settlement history for a user
      */
     @Transactional(readOnly = true)
-    public List<Settlement> getUserSettlements(Long userId) {
-        return settlementRepository.findByUserId(userId);
+    public List<SettlementSummary> getUserSettlements(Long userId) {
+        return settlementRepository.findSummariesByUserId(userId);
     }
 }
@@ -0,0 +1,71 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Reads per-region second-level cache statistics from Hibernate.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Gets hit/miss figures for every entity and query cache region.
+     *
+     * @return One entry per region
+     */
+    public List<CacheRegionStats> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStats> result = new ArrayList<>();
+
+        Set<String> entityRegions = Arrays.stream(statistics.getEntityNames())
+                .map(entity -> statistics.getEntityStatistics(entity).getCacheRegionName())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        entityRegions.forEach(region -> result.add(
+                toStats(region, "ENTITY", statistics.getDomainDataRegionStatistics(region))));
+
+        // Query result regions show up once a cacheable query has used them
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .filter(region -> !entityRegions.contains(region))
+                .sorted()
+                .forEach(region -> {
+                    CacheRegionStatistics queryStats = statistics.getQueryRegionStatistics(region);
+                    if (queryStats != null) {
+                        result.add(toStats(region, "QUERY", queryStats));
+                    }
+                });
+        return result;
+    }
+
+    private CacheRegionStats toStats(String region, String kind, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        return CacheRegionStats.builder()
+                .region(region)
+                .kind(kind)
+                .hits(hits)
+                .misses(misses)
+                .puts(stats.getPutCount())
+                .hitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                // Ehcache does not report sizes through JCache; Hibernate returns a negative sentinel then
+                .elementsInMemory(stats.getElementCountInMemory() < 0 ? null : stats.getElementCountInMemory())
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.splitwise.splitwiseclone.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed blob store on the local filesystem. A blob is stored once
+ * under the hex SHA-256 of its bytes, fanned out as {@code ab/cd/abcd...}.
+ * Writes stream through a fixed buffer into a temp file while hashing, then
+ * the file is atomically moved to its address, so readers never see a partial
+ * blob and concurrent uploads of the same content are harmless.
+ */
+@Component
+@Slf4j
+public class ContentStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+
+    public ContentStore(@Value("${attachments.storage-dir:./data/attachments}") String storageDir) {
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create attachment storage " + root, e);
+        }
+        log.info("Attachment storage at {}", root);
+    }
+
+    /**
+     * Result of storing a blob.
+     *
+     * @param hash Hex SHA-256 of the content
+     * @param size Size in bytes
+     */
+    public record StoredContent(String hash, long size) {
+    }
+
+    /**
+     * Streams content into the store.
+     *
+     * @param in      Content, read to the end but not closed
+     * @param maxSize Maximum accepted size in bytes
+     * @return Address and size of the stored content
+     * @throws IllegalArgumentException if the content is empty or larger than maxSize
+     * @throws IOException              on read or write failure
+     */
+    public StoredContent store(InputStream in, long maxSize) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("Attachment exceeds the maximum size of " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Attachment is empty");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                // Already stored: refresh the timestamp so the orphan sweep keeps it
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                    if (!Files.exists(target)) {
+                        throw e;
+                    }
+                    // Lost a race with an identical upload
+                }
+            }
+            return new StoredContent(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Location of a blob.
+     *
+     * @param hash Hex SHA-256
+     * @return Path of the blob (which may not exist)
+     */
+    public Path path(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Lists every stored blob.
+     *
+     * @return Paths of the blobs; the stream must be closed
+     */
+    public Stream<Path> list() throws IOException {
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && HASH.matcher(path.getFileName().toString()).matches());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
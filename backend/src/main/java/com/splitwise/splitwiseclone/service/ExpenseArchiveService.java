@@ -0,0 +1,299 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.ExpenseSplitSummary;
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
+import com.splitwise.splitwiseclone.entity.ArchivedExpense;
+import com.splitwise.splitwiseclone.entity.ArchivedExpenseSplit;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.entity.Group;
+import com.splitwise.splitwiseclone.repository.ArchivedExpenseRepository;
+import com.splitwise.splitwiseclone.repository.ArchivedExpenseSplitRepository;
+import com.splitwise.splitwiseclone.repository.GroupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold tier for the expenses of settled, inactive groups.
+ * <p>
+ * A group with no outstanding balances, no queued balance work, no active
+ * recurring expense and no activity for {@code archive.inactive-months} is
+ * marked archived and its expenses and splits are moved, chunk by chunk, from
+ * the hot tables into archived_expenses / archived_expense_splits, which carry
+ * only a group index. Each chunk runs in its own short transaction holding the
+ * group row lock, and stops if the group was restored in the meantime.
+ * <p>
+ * Reads stay transparent: ExpenseService falls back to the archive for
+ * archived groups. The first write to an archived group restores it inside the
+ * writer's transaction, so balances are always rebuilt from the hot tables.
+ */
+@Service
+@Slf4j
+public class ExpenseArchiveService {
+
+    private static final String EXPENSE_COLUMNS = "id, amount, description, category, currency, paid_by, group_id, "
+            + "split_type, expense_date, recurring_expense_id, recurrence_date, created_at, updated_at";
+
+    private final GroupRepository groupRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final ArchivedExpenseSplitRepository archivedExpenseSplitRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int inactiveMonths;
+    private final int chunkSize;
+    private final int maxGroupsPerRun;
+
+    public ExpenseArchiveService(
+            GroupRepository groupRepository,
+            ArchivedExpenseRepository archivedExpenseRepository,
+            ArchivedExpenseSplitRepository archivedExpenseSplitRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${archive.enabled:true}") boolean enabled,
+            @Value("${archive.inactive-months:12}") int inactiveMonths,
+            @Value("${archive.chunk-size:1000}") int chunkSize,
+            @Value("${archive.max-groups-per-run:100}") int maxGroupsPerRun) {
+        this.groupRepository = groupRepository;
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        this.archivedExpenseSplitRepository = archivedExpenseSplitRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.inactiveMonths = inactiveMonths;
+        this.chunkSize = chunkSize;
+        this.maxGroupsPerRun = maxGroupsPerRun;
+    }
+
+    /**
+     * Archives the groups that have become eligible since the last run.
+     */
+    @Scheduled(fixedDelayString = "${archive.interval:3600000}", initialDelayString = "${archive.initial-delay:60000}")
+    public void archiveInactiveGroups() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(inactiveMonths);
+        for (Long groupId : groupRepository.findArchivableGroupIds(cutoff, PageRequest.of(0, maxGroupsPerRun))) {
+            try {
+                archiveGroup(groupId);
+            } catch (Exception e) {
+                log.error("Archiving group {} failed, will retry on next run: {}", groupId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Marks a group archived and moves its expenses and splits to the archive
+     * tables. A partially moved group is still consistent: reads of an
+     * archived group combine both tiers.
+     *
+     * @param groupId Group ID
+     */
+    public void archiveGroup(Long groupId) {
+        long started = System.currentTimeMillis();
+
+        Boolean marked = transactionTemplate.execute(status -> {
+            Group group = groupRepository.findByIdForUpdate(groupId).orElse(null);
+            if (group == null || group.getDeletedAt() != null) {
+                return false;
+            }
+            if (group.getArchivedAt() == null) {
+                group.setArchivedAt(LocalDateTime.now());
+                groupRepository.save(group);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(marked)) {
+            return;
+        }
+
+        long expenses = 0;
+        long splits = 0;
+        Long fromId = 0L;
+        while (fromId != null) {
+            final Long after = fromId;
+            long[] moved = transactionTemplate.execute(status -> moveChunk(groupId, after));
+            if (moved == null) {
+                log.info("Group {} was restored while being archived, stopping", groupId);
+                return;
+            }
+            expenses += moved[0];
+            splits += moved[1];
+            fromId = moved[0] == 0 ? null : moved[2];
+        }
+
+        log.info("Archived group {} in {} ms: {} expenses, {} splits", groupId,
+                System.currentTimeMillis() - started, expenses, splits);
+    }
+
+    /**
+     * Moves the next chunk of a group's expenses, by expense id, under the
+     * group row lock.
+     *
+     * @return {expenses moved, splits moved, highest expense id}, or null if
+     *         the group is no longer archived
+     */
+    private long[] moveChunk(Long groupId, Long afterId) {
+        Optional<Group> group = groupRepository.findByIdForUpdate(groupId);
+        if (group.isEmpty() || group.get().getArchivedAt() == null) {
+            return null;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM expenses WHERE group_id = ? AND id > ? AND balance_pending = false "
+                        + "ORDER BY id FETCH FIRST " + chunkSize + " ROWS ONLY",
+                Long.class, groupId, afterId);
+        if (ids.isEmpty()) {
+            return new long[] { 0, 0, afterId };
+        }
+        long low = ids.get(0);
+        long high = ids.get(ids.size() - 1);
+        String range = " FROM expenses WHERE group_id = ? AND id BETWEEN ? AND ? AND balance_pending = false";
+
+        int splits = jdbcTemplate.update("INSERT INTO archived_expense_splits "
+                + "(id, expense_id, group_id, user_id, amount, percentage, shares) "
+                + "SELECT s.id, s.expense_id, ?, s.user_id, s.amount, s.percentage, s.shares FROM expense_splits s "
+                + "WHERE s.expense_id IN (SELECT id" + range + ")", groupId, groupId, low, high);
+        int expenses = jdbcTemplate.update("INSERT INTO archived_expenses (" + EXPENSE_COLUMNS + ") SELECT "
+                + EXPENSE_COLUMNS + range, groupId, low, high);
+        jdbcTemplate.update("DELETE FROM expense_splits WHERE expense_id IN (SELECT id" + range + ")",
+                groupId, low, high);
+        jdbcTemplate.update("DELETE" + range, groupId, low, high);
+        return new long[] { expenses, splits, high };
+    }
+
+    /**
+     * Moves an archived group's expenses back to the hot tables and clears
+     * its archived mark. Runs in the caller's transaction, so the restore
+     * commits or rolls back together with the write that triggered it. Cheap
+     * for groups that are not archived: a single update that matches no row.
+     * The mark is cleared in the database only; a Group already loaded by the
+     * caller keeps its stale archivedAt.
+     *
+     * @param groupId Group ID
+     * @return true if the group was restored
+     */
+    @Transactional
+    public boolean restoreIfArchived(Long groupId) {
+        if (groupId == null || groupRepository.clearArchivedAt(groupId, LocalDateTime.now()) == 0) {
+            return false; // Not archived, or restored concurrently
+        }
+
+        int expenses = jdbcTemplate.update("INSERT INTO expenses (" + EXPENSE_COLUMNS + ", balance_pending) SELECT "
+                + EXPENSE_COLUMNS + ", false FROM archived_expenses WHERE group_id = ?", groupId);
+        int splits = jdbcTemplate.update("INSERT INTO expense_splits (id, expense_id, user_id, amount, percentage, "
+                + "shares) SELECT id, expense_id, user_id, amount, percentage, shares FROM archived_expense_splits "
+                + "WHERE group_id = ?", groupId);
+        jdbcTemplate.update("DELETE FROM archived_expense_splits WHERE group_id = ?", groupId);
+        jdbcTemplate.update("DELETE FROM archived_expenses WHERE group_id = ?", groupId);
+
+        log.info("Restored archived group {}: {} expenses, {} splits", groupId, expenses, splits);
+        return true;
+    }
+
+    /**
+     * Checks whether a group is archived, reading the archived_at column.
+     *
+     * @param groupId Group ID
+     * @return true if archived
+     */
+    @Transactional(readOnly = true)
+    public boolean isArchived(Long groupId) {
+        return groupRepository.existsByIdAndArchivedAtIsNotNull(groupId);
+    }
+
+    /**
+     * Gets an archived expense.
+     *
+     * @param expenseId Expense ID
+     * @return The expense, detached, if it is in the archive
+     */
+    @Transactional(readOnly = true)
+    public Optional<Expense> findArchivedExpense(Long expenseId) {
+        return archivedExpenseRepository.findById(expenseId).map(ArchivedExpense::toExpense);
+    }
+
+    /**
+     * Gets the archived expenses of a group, as list rows.
+     *
+     * @param groupId Group ID
+     * @return Expense summaries
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseSummary> getArchivedGroupExpenses(Long groupId) {
+        return archivedExpenseRepository.findSummariesByGroupId(groupId);
+    }
+
+    /**
+     * Gets the newest archived expenses of a group, as list rows.
+     *
+     * @param groupId Group ID
+     * @param limit   Maximum number of expenses
+     * @return Expense summaries, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseSummary> getArchivedGroupExpenses(Long groupId, int limit) {
+        return archivedExpenseRepository.findSummaryPageByGroupId(groupId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Gets the archived splits of several expenses, as list rows.
+     *
+     * @param expenseIds Expense IDs
+     * @return Split summaries ordered by expense
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseSplitSummary> getArchivedSplitSummaries(Collection<Long> expenseIds) {
+        return archivedExpenseSplitRepository.findSummariesByExpenseIdIn(expenseIds);
+    }
+
+    /**
+     * Gets the archived splits of an expense.
+     *
+     * @param expenseId Expense ID
+     * @return Split summaries
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseSplitSummary> getArchivedExpenseSplits(Long expenseId) {
+        return archivedExpenseSplitRepository.findSummariesByExpenseId(expenseId);
+    }
+
+    /**
+     * Gets the archived expenses among the given IDs.
+     *
+     * @param expenseIds Expense IDs
+     * @return Detached expenses
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> findArchivedExpenses(Collection<Long> expenseIds) {
+        return archivedExpenseRepository.findAllById(expenseIds).stream()
+                .map(ArchivedExpense::toExpense)
+                .toList();
+    }
+
+    /**
+     * Gets the archived splits of several expenses.
+     *
+     * @param expenseIds Expense IDs
+     * @return Detached splits
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseSplit> getArchivedExpenseSplits(Collection<Long> expenseIds) {
+        return archivedExpenseSplitRepository.findByExpenseIdIn(expenseIds).stream()
+                .map(ArchivedExpenseSplit::toExpenseSplit)
+                .toList();
+    }
+}
@@ -1,23 +1,41 @@
 package com.splitwise.splitwiseclone.service;
 
+import com.splitwise.splitwiseclone.dto.ExpenseDetail;
+import com.splitwise.splitwiseclone.dto.ExpenseDetailPage;
+import com.splitwise.splitwiseclone.dto.ExpenseSplitSummary;
+import com.splitwise.splitwiseclone.dto.ExpenseSummary;
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 import com.splitwise.splitwiseclone.entity.Expense;
 import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.enums.ActivityType;
 import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
 import com.splitwise.splitwiseclone.enums.SplitType;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import com.splitwise.splitwiseclone.repository.ExpenseAttachmentRepository;
 import com.splitwise.splitwiseclone.repository.ExpenseRepository;
 import com.splitwise.splitwiseclone.repository.ExpenseSplitRepository;
 import com.splitwise.splitwiseclone.service.strategy.SplitStrategy;
 import com.splitwise.splitwiseclone.service.strategy.SplitStrategyFactory;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for expense management operations
@@ -26,13 +44,21 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "splitwise.service.expense", description = "ExpenseService method latency")
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
+    private final ExpenseAttachmentRepository attachmentRepository;
     private final SplitStrategyFactory splitStrategyFactory;
     private final BalanceService balanceService;
     private final GroupService groupService;
+    private final BalancePipelineService balancePipelineService;
+    private final ActivityFeedService activityFeedService;
+    private final OutboxService outboxService;
+    private final ExpenseArchiveService expenseArchiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Creates a new expense, calculates splits, and updates balances.
@@ -46,7 +72,8 @@ public class ExpenseService {
      * @param splitType    Type of split (EQUAL, EXACT, etc.)
      * @param participants List of participants and their split details
      * @param expenseDate  Date of the expense
-     * @return The created Expense entity
+     * @return The created Expense entity (carrying a balance token when balances
+     *         are applied asynchronously)
      */
     public Expense createExpense(
             BigDecimal amount,
@@ -60,11 +87,14 @@ public class ExpenseService {
             LocalDateTime expenseDate) {
         log.info("Creating expense: {} for amount: {} by user: {}", description, amount, paidBy);
 
-        // Validate group membership if it's a group expense
-        if (groupId != null && !groupService.isUserMemberOfGroup(paidBy, groupId)) {
-            throw new IllegalArgumentException("User is not a member of the group");
+        // Validate payer and participant membership if it's a group expense
+        if (groupId != null) {
+            groupService.validateExpenseParticipants(groupId, paidBy, participants);
+            expenseArchiveService.restoreIfArchived(groupId);
         }
 
+        boolean applyAsync = groupId != null && balancePipelineService.isEnabled();
+
         // Create expense
         Expense expense = Expense.builder()
                 .amount(amount)
@@ -75,34 +105,29 @@ public class ExpenseService {
                 .groupId(groupId)
                 .splitType(splitType)
                 .expenseDate(expenseDate != null ? expenseDate : LocalDateTime.now())
+                .balancePending(applyAsync)
                 .build();
 
         expense = expenseRepository.save(expense);
 
-        // Calculate splits using strategy pattern
+        // Calculate splits using strategy pattern and persist them in one batch
         SplitStrategy strategy = splitStrategyFactory.getStrategy(splitType);
-        Map<Long, BigDecimal> splits = strategy.calculateSplit(amount, participants);
-
-        // Save expense splits
-        for (Map.Entry<Long, BigDecimal> entry : splits.entrySet()) {
-            SplitParticipant participant = participants.stream()
-                    .filter(p -> p.getUserId().equals(entry.getKey()))
-                    .findFirst()
-                    .orElse(null);
-
-            ExpenseSplit expenseSplit = ExpenseSplit.builder()
-                    .expenseId(expense.getId())
-                    .userId(entry.getKey())
-                    .amount(entry.getValue())
-                    .percentage(participant != null ? participant.getPercentage() : null)
-                    .shares(participant != null ? participant.getShares() : null)
-                    .build();
-
-            expenseSplitRepository.save(expenseSplit);
-        }
+        List<SplitResult> splits = strategy.calculateSplit(amount, participants);
+        expenseSplitRepository.insertAll(expense.getId(), splits);
 
         // Update balances
-        balanceService.updateBalancesForExpense(expense.getId(), paidBy, splits, currency, groupId);
+        if (applyAsync) {
+            expense.setBalanceToken(balancePipelineService.enqueueDelta(expense));
+        } else {
+            balanceService.updateBalancesForExpense(expense.getId(), paidBy, toAmounts(splits), currency, groupId);
+        }
+
+        meterRegistry.counter("splitwise.expenses.created",
+                "splitType", splitType.name(),
+                "category", category != null ? category.name() : "NONE").increment();
+        activityFeedService.recordExpense(ActivityType.EXPENSE_CREATED, expense, paidBy, userIds(splits));
+        outboxService.publish("expense.created", "expense", expense.getId(), groupId, expense);
+        publishGroupChange(groupId, GroupChangeType.EXPENSE_CREATED, expense.getId(), paidBy);
 
         return expense;
     }
@@ -132,21 +157,18 @@ public class ExpenseService {
             LocalDateTime expenseDate) {
         log.info("Updating expense: {} by user: {}", expenseId, userId);
 
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        Expense expense = findForWrite(expenseId);
 
         // Validate permission: user must be the one who paid for the expense
         if (!expense.getPaidBy().equals(userId)) {
             throw new SecurityException("You do not have permission to edit this expense");
         }
 
-        // Reverse old balances before updating
-        if (expense.getGroupId() != null) {
-            balanceService.recalculateBalancesForGroup(expense.getGroupId());
+        if (expense.getGroupId() != null && participants != null && !participants.isEmpty()) {
+            groupService.validateExpenseParticipants(expense.getGroupId(), expense.getPaidBy(), participants);
         }
 
-        // Delete old splits
-        expenseSplitRepository.deleteByExpenseId(expenseId);
+        boolean applyAsync = expense.getGroupId() != null && balancePipelineService.isEnabled();
 
         // Update expense fields
         if (amount != null) {
@@ -167,36 +189,42 @@ public class ExpenseService {
 
         expense = expenseRepository.save(expense);
 
-        // Recalculate splits if participants provided
+        // Replace splits if participants provided; otherwise the existing splits stay
+        List<Long> participantIds = List.of();
         if (participants != null && !participants.isEmpty()) {
             SplitStrategy strategy = splitStrategyFactory.getStrategy(expense.getSplitType());
-            Map<Long, BigDecimal> splits = strategy.calculateSplit(expense.getAmount(), participants);
-
-            for (Map.Entry<Long, BigDecimal> entry : splits.entrySet()) {
-                SplitParticipant participant = participants.stream()
-                        .filter(p -> p.getUserId().equals(entry.getKey()))
-                        .findFirst()
-                        .orElse(null);
-
-                ExpenseSplit expenseSplit = ExpenseSplit.builder()
-                        .expenseId(expense.getId())
-                        .userId(entry.getKey())
-                        .amount(entry.getValue())
-                        .percentage(participant != null ? participant.getPercentage() : null)
-                        .shares(participant != null ? participant.getShares() : null)
-                        .build();
-
-                expenseSplitRepository.save(expenseSplit);
+            List<SplitResult> splits = strategy.calculateSplit(expense.getAmount(), participants);
+
+            expenseSplitRepository.deleteAllByExpenseIdInBulk(expenseId);
+            expenseSplitRepository.insertAll(expense.getId(), splits);
+            participantIds = userIds(splits);
+
+            // Personal expenses have no group to rebuild from, so apply the new splits directly
+            if (expense.getGroupId() == null) {
+                balanceService.updateBalancesForExpense(
+                        expense.getId(),
+                        expense.getPaidBy(),
+                        toAmounts(splits),
+                        expense.getCurrency(),
+                        null);
             }
+        }
+
+        // Rebuild group balances from the persisted splits, now including this expense's new ones
+        if (expense.getGroupId() != null && !applyAsync) {
+            balanceService.recalculateBalancesForGroup(expense.getGroupId());
+        }
+
+        if (applyAsync) {
+            expense.setBalanceToken(balancePipelineService.enqueueRebuild(expense.getGroupId()));
+        }
 
-            // Recalculate balances with new splits
-            balanceService.updateBalancesForExpense(
-                    expense.getId(),
-                    expense.getPaidBy(),
-                    splits,
-                    expense.getCurrency(),
-                    expense.getGroupId());
+        if (expense.getGroupId() == null && participantIds.isEmpty()) {
+            participantIds = splitUserIds(expense.getId());
         }
+        activityFeedService.recordExpense(ActivityType.EXPENSE_UPDATED, expense, userId, participantIds);
+        outboxService.publish("expense.updated", "expense", expense.getId(), expense.getGroupId(), expense);
+        publishGroupChange(expense.getGroupId(), GroupChangeType.EXPENSE_UPDATED, expense.getId(), userId);
 
         return expense;
     }
@@ -211,8 +239,7 @@ public class ExpenseService {
     public void deleteExpense(Long expenseId, Long requestingUserId) {
         log.info("Deleting expense: {} by user: {}", expenseId, requestingUserId);
 
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        Expense expense = findForWrite(expenseId);
 
         Long groupId = expense.getGroupId();
 
@@ -242,13 +269,23 @@ public class ExpenseService {
             log.info("User {} is the creator/payer, allowing delete", requestingUserId);
         }
 
-        expenseSplitRepository.deleteByExpenseId(expenseId);
+        // Group expenses reach every member; personal ones need their participants
+        List<Long> participantIds = groupId == null ? splitUserIds(expenseId) : List.of();
+        activityFeedService.recordExpense(ActivityType.EXPENSE_DELETED, expense, requestingUserId, participantIds);
+        outboxService.publish("expense.deleted", "expense", expenseId, groupId, expense);
+
+        expenseSplitRepository.deleteAllByExpenseIdInBulk(expenseId);
+        attachmentRepository.deleteAllByExpenseIdInBulk(expenseId);
         expenseRepository.deleteById(expenseId);
 
         // Recalculate balances
-        if (groupId != null) {
+        if (groupId != null && balancePipelineService.isEnabled()) {
+            balancePipelineService.enqueueRebuild(groupId);
+        } else if (groupId != null) {
             balanceService.recalculateBalancesForGroup(groupId);
         }
+
+        publishGroupChange(groupId, GroupChangeType.EXPENSE_DELETED, expenseId, requestingUserId);
     }
 
     /**
@@ -260,29 +297,99 @@ public class ExpenseService {
     @Transactional(readOnly = true)
     public Expense getExpenseById(Long expenseId) {
         return expenseRepository.findById(expenseId)
+                .or(() -> expenseArchiveService.findArchivedExpense(expenseId))
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
     }
 
     /**
-     * Gets expenses for a group.
+     * Gets expenses for a group, including archived ones, as list rows.
      *
      * @param groupId Group ID
-     * @return List of expenses
+     * @return List of expense summaries
      */
     @Transactional(readOnly = true)
-    public List<Expense> getGroupExpenses(Long groupId) {
-        return expenseRepository.findByGroupId(groupId);
+    public List<ExpenseSummary> getGroupExpenses(Long groupId) {
+        List<ExpenseSummary> expenses = expenseRepository.findSummariesByGroupId(groupId);
+        if (!expenseArchiveService.isArchived(groupId)) {
+            return expenses;
+        }
+        List<ExpenseSummary> all = new ArrayList<>(expenseArchiveService.getArchivedGroupExpenses(groupId));
+        all.addAll(expenses);
+        return all;
+    }
+
+    /**
+     * Gets one page of a group's expenses, newest first, with their splits
+     * embedded. Reads the archived mark, the page and then the splits of the
+     * whole page in a single IN query: three queries, or five for archived
+     * groups, which read the page and the splits from both tiers. An archived
+     * group's page reads the first (page + 1) * size rows of each tier, so
+     * callers bound how deep pages go.
+     *
+     * @param groupId Group ID
+     * @param page    Zero-based page number
+     * @param size    Page size
+     * @return The page
+     * @throws IllegalArgumentException if page is negative, size is not
+     *                                  positive or the page ends past
+     *                                  Integer.MAX_VALUE
+     */
+    @Transactional(readOnly = true)
+    public ExpenseDetailPage getGroupExpenseDetails(Long groupId, int page, int size) {
+        long pageEnd = (page + 1L) * size;
+        if (page < 0 || size < 1 || pageEnd > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        List<ExpenseSummary> expenses;
+        boolean archived = expenseArchiveService.isArchived(groupId);
+        if (!archived) {
+            expenses = expenseRepository.findSummaryPageByGroupId(groupId, PageRequest.of(page, size));
+        } else {
+            // Both tiers may hold expenses while a group is being moved; merge their heads
+            int end = (int) pageEnd;
+            expenses = new ArrayList<>(expenseRepository.findSummaryPageByGroupId(groupId, PageRequest.of(0, end)));
+            expenses.addAll(expenseArchiveService.getArchivedGroupExpenses(groupId, end));
+            expenses.sort(Comparator.comparing(ExpenseSummary::getExpenseDate)
+                    .thenComparing(ExpenseSummary::getId)
+                    .reversed());
+            expenses = expenses.subList(Math.min(page * size, expenses.size()), Math.min(end, expenses.size()));
+        }
+
+        Map<Long, List<ExpenseSplitSummary>> splitsByExpense = new HashMap<>();
+        if (!expenses.isEmpty()) {
+            List<Long> expenseIds = expenses.stream().map(ExpenseSummary::getId).toList();
+            List<ExpenseSplitSummary> splits = new ArrayList<>(
+                    expenseSplitRepository.findSummariesByExpenseIdIn(expenseIds));
+            if (archived) {
+                splits.addAll(expenseArchiveService.getArchivedSplitSummaries(expenseIds));
+            }
+            for (ExpenseSplitSummary split : splits) {
+                splitsByExpense.computeIfAbsent(split.getExpenseId(), id -> new ArrayList<>()).add(split);
+            }
+        }
+
+        List<ExpenseDetail> items = new ArrayList<>(expenses.size());
+        for (ExpenseSummary expense : expenses) {
+            items.add(ExpenseDetail.builder()
+                    .expense(expense)
+                    .splits(splitsByExpense.getOrDefault(expense.getId(), List.of()))
+                    .build());
+        }
+        return ExpenseDetailPage.builder()
+                .items(items)
+                .nextPage(items.size() == size ? page + 1 : null)
+                .build();
     }
 
     /**
      * Gets personal expenses for a user.
      *
      * @param userId User ID
-     * @return List of expenses
+     * @return List of expense summaries
      */
     @Transactional(readOnly = true)
-    public List<Expense> getPersonalExpenses(Long userId) {
-        return expenseRepository.findPersonalExpensesByUserId(userId);
+    public List<ExpenseSummary> getPersonalExpenses(Long userId) {
+        return expenseRepository.findPersonalSummariesByUserId(userId);
     }
 
     /**
@@ -292,7 +399,54 @@ public class ExpenseService {
      * @return List of splits
      */
     @Transactional(readOnly = true)
-    public List<ExpenseSplit> getExpenseSplits(Long expenseId) {
-        return expenseSplitRepository.findByExpenseId(expenseId);
+    public List<ExpenseSplitSummary> getExpenseSplits(Long expenseId) {
+        List<ExpenseSplitSummary> splits = expenseSplitRepository.findSummariesByExpenseId(expenseId);
+        return splits.isEmpty() ? expenseArchiveService.getArchivedExpenseSplits(expenseId) : splits;
+    }
+
+    /**
+     * Loads an expense that is about to be modified, first moving its group
+     * back out of the archive if needed.
+     */
+    private Expense findForWrite(Long expenseId) {
+        Optional<Expense> expense = expenseRepository.findById(expenseId);
+        if (expense.isPresent()) {
+            expenseArchiveService.restoreIfArchived(expense.get().getGroupId());
+            return expense.get();
+        }
+        Long groupId = expenseArchiveService.findArchivedExpense(expenseId)
+                .map(Expense::getGroupId)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        expenseArchiveService.restoreIfArchived(groupId);
+        return expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+    }
+
+    private List<Long> splitUserIds(Long expenseId) {
+        return expenseSplitRepository.findByExpenseId(expenseId).stream().map(ExpenseSplit::getUserId).toList();
+    }
+
+    private static List<Long> userIds(List<SplitResult> splits) {
+        return splits.stream().map(SplitResult::getUserId).toList();
+    }
+
+    private static Map<Long, BigDecimal> toAmounts(List<SplitResult> splits) {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>(splits.size() * 4 / 3 + 1);
+        for (SplitResult split : splits) {
+            amounts.put(split.getUserId(), split.getAmount());
+        }
+        return amounts;
+    }
+
+    private void publishGroupChange(Long groupId, GroupChangeType type, Long expenseId, Long actorId) {
+        if (groupId == null) {
+            return;
+        }
+        eventPublisher.publishEvent(GroupChangeEvent.builder()
+                .groupId(groupId)
+                .type(type)
+                .entityId(expenseId)
+                .actorId(actorId)
+                .build());
     }
 }
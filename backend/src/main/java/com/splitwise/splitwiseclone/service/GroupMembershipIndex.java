@@ -0,0 +1,228 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.entity.GroupMember;
+import com.splitwise.splitwiseclone.repository.GroupMemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory membership index used to validate expense participants on the
+ * write path. Each group is held as an immutable sorted array of member user
+ * ids that is swapped atomically on change, so lookups are a lock-free binary
+ * search. A group is loaded from the database the first time it is checked
+ * and afterwards kept current by GroupService; changes are applied only once
+ * the membership transaction has committed.
+ * <p>
+ * Changes made on other nodes are not seen, so a snapshot is only trusted for
+ * {@code groups.membership-index.ttl} after it was loaded, and a user missing
+ * from a snapshot is looked up again before being rejected. Authorization
+ * (GroupService.isUserMemberOfGroup, isGroupAdmin) does not use the index.
+ */
+@Component
+@Slf4j
+public class GroupMembershipIndex {
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final long ttlMs;
+
+    private final Map<Long, Membership> groups = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    public GroupMembershipIndex(
+            GroupMemberRepository groupMemberRepository,
+            @Value("${groups.membership-index.ttl:30000}") long ttlMs) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Number of members of the group.
+     *
+     * @param groupId Group ID
+     * @return Member count
+     */
+    public int memberCount(Long groupId) {
+        return get(groupId).members.length;
+    }
+
+    /**
+     * Validates the payer and every participant of a group expense against one
+     * snapshot of the group's membership, reloaded from the database if a user
+     * is missing from the cached one.
+     *
+     * @param groupId      Group ID
+     * @param paidBy       ID of the user who paid
+     * @param participants Split participants, may be null
+     * @throws IllegalArgumentException if any of them is not a member
+     */
+    public void validateParticipants(Long groupId, Long paidBy, List<SplitParticipant> participants) {
+        Membership membership = get(groupId);
+        if (!membership.containsAll(paidBy, participants)) {
+            // May have joined on another node since the snapshot was loaded
+            membership = load(groupId);
+        }
+        if (!membership.isMember(paidBy)) {
+            throw new IllegalArgumentException("User is not a member of the group");
+        }
+        if (participants == null) {
+            return;
+        }
+        for (SplitParticipant participant : participants) {
+            Long userId = participant.getUserId();
+            if (!membership.isMember(userId)) {
+                throw new IllegalArgumentException("Participant " + userId + " is not a member of the group");
+            }
+        }
+    }
+
+    /**
+     * Records a new member once the current transaction commits.
+     */
+    public void memberAdded(Long groupId, Long userId) {
+        afterCommit(() -> groups.computeIfPresent(groupId, (id, membership) -> membership.with(userId)));
+    }
+
+    /**
+     * Drops a member once the current transaction commits.
+     */
+    public void memberRemoved(Long groupId, Long userId) {
+        afterCommit(() -> groups.computeIfPresent(groupId, (id, membership) -> membership.without(userId)));
+    }
+
+    /**
+     * Forgets a group once the current transaction commits.
+     */
+    public void groupDeleted(Long groupId) {
+        afterCommit(() -> groups.remove(groupId));
+    }
+
+    /**
+     * Number of groups currently held in memory.
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    /**
+     * Drops expired snapshots, so the index only holds groups used within the
+     * last TTL.
+     */
+    @Scheduled(fixedDelayString = "${groups.membership-index.ttl:30000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        groups.values().removeIf(membership -> membership.isExpired(now, ttlMs));
+    }
+
+    private Membership get(Long groupId) {
+        Membership membership = groups.get(groupId);
+        if (membership != null && !membership.isExpired(System.currentTimeMillis(), ttlMs)) {
+            return membership;
+        }
+        return load(groupId);
+    }
+
+    private Membership load(Long groupId) {
+        long seen = modifications.get();
+        Membership membership = Membership.of(groupMemberRepository.findByGroupId(groupId));
+        // Only cache the snapshot if no membership change committed while it was being read
+        if (modifications.get() == seen) {
+            groups.put(groupId, membership);
+        }
+        return membership;
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            modifications.incrementAndGet();
+            change.run();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Immutable snapshot of one group's membership.
+     */
+    private static final class Membership {
+        private final long[] members;
+        private final long loadedAt;
+
+        private Membership(long[] members, long loadedAt) {
+            this.members = members;
+            this.loadedAt = loadedAt;
+        }
+
+        private static Membership of(List<GroupMember> groupMembers) {
+            long[] members = groupMembers.stream().mapToLong(GroupMember::getUserId).sorted().toArray();
+            return new Membership(members, System.currentTimeMillis());
+        }
+
+        private boolean isExpired(long now, long ttlMs) {
+            return now - loadedAt >= ttlMs;
+        }
+
+        private boolean isMember(Long userId) {
+            return userId != null && Arrays.binarySearch(members, userId) >= 0;
+        }
+
+        private boolean containsAll(Long paidBy, List<SplitParticipant> participants) {
+            if (!isMember(paidBy)) {
+                return false;
+            }
+            return participants == null
+                    || participants.stream().allMatch(participant -> isMember(participant.getUserId()));
+        }
+
+        // Local changes keep the load time: they do not make up for missed changes from other nodes
+        private Membership with(long userId) {
+            return new Membership(insert(members, userId), loadedAt);
+        }
+
+        private Membership without(long userId) {
+            return new Membership(remove(members, userId), loadedAt);
+        }
+
+        private static long[] insert(long[] ids, long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                return ids;
+            }
+            int position = -index - 1;
+            long[] result = new long[ids.length + 1];
+            System.arraycopy(ids, 0, result, 0, position);
+            result[position] = id;
+            System.arraycopy(ids, position, result, position + 1, ids.length - position);
+            return result;
+        }
+
+        private static long[] remove(long[] ids, long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return ids;
+            }
+            long[] result = new long[ids.length - 1];
+            System.arraycopy(ids, 0, result, 0, index);
+            System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+            return result;
+        }
+    }
+}
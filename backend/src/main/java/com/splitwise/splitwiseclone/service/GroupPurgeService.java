@@ -0,0 +1,157 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.repository.GroupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Background purge of tombstoned groups. Dependent rows are removed with
+ * set-based DELETEs of at most chunk-size rows, each in its own short
+ * transaction, so deleting a huge group never holds long locks: splits and
+ * expenses by expense id range, then activities, archived expenses, balances,
+ * settlements, pending balance work and the version row, and finally the group
+ * row. Every step is idempotent, so a purge interrupted by a restart simply
+ * continues on the next run.
+ */
+@Service
+@Slf4j
+public class GroupPurgeService {
+
+    private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public GroupPurgeService(
+            GroupRepository groupRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${groups.purge.enabled:true}") boolean enabled,
+            @Value("${groups.purge.chunk-size:1000}") int chunkSize) {
+        this.groupRepository = groupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Purges every tombstoned group.
+     */
+    @Scheduled(fixedDelayString = "${groups.purge.interval:30000}")
+    public void purgeDeletedGroups() {
+        if (!enabled) {
+            return;
+        }
+        for (Long groupId : groupRepository.findDeletedGroupIds()) {
+            try {
+                purgeGroup(groupId);
+            } catch (Exception e) {
+                log.error("Purge of deleted group {} failed, will retry on next run: {}", groupId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Removes all data of a tombstoned group, chunk by chunk.
+     *
+     * @param groupId Group ID
+     */
+    public void purgeGroup(Long groupId) {
+        long started = System.currentTimeMillis();
+
+        // Expenses with their splits and attachments, one dense range of expense ids at a time
+        long expenses = 0;
+        long splits = 0;
+        Long fromId = 0L;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM expenses WHERE group_id = ? AND id > ? ORDER BY id FETCH FIRST "
+                            + chunkSize + " ROWS ONLY",
+                    Long.class, groupId, fromId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long low = ids.get(0);
+            long high = ids.get(ids.size() - 1);
+            int[] deleted = transactionTemplate.execute(status -> new int[] {
+                    jdbcTemplate.update("DELETE FROM expense_splits WHERE expense_id IN "
+                            + "(SELECT id FROM expenses WHERE group_id = ? AND id BETWEEN ? AND ?)", groupId, low, high),
+                    jdbcTemplate.update("DELETE FROM expense_attachments WHERE expense_id IN "
+                            + "(SELECT id FROM expenses WHERE group_id = ? AND id BETWEEN ? AND ?)", groupId, low, high),
+                    jdbcTemplate.update("DELETE FROM expenses WHERE group_id = ? AND id BETWEEN ? AND ?",
+                            groupId, low, high) });
+            splits += deleted[0];
+            expenses += deleted[2];
+            fromId = high;
+        }
+
+        // Activities, with their feed deliveries, by activity id range
+        long activities = 0;
+        fromId = 0L;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM activities WHERE group_id = ? AND id > ? ORDER BY id FETCH FIRST "
+                            + chunkSize + " ROWS ONLY",
+                    Long.class, groupId, fromId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long low = ids.get(0);
+            long high = ids.get(ids.size() - 1);
+            activities += transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM activity_feed WHERE activity_id IN "
+                        + "(SELECT id FROM activities WHERE group_id = ? AND id BETWEEN ? AND ?)", groupId, low, high);
+                return jdbcTemplate.update("DELETE FROM activities WHERE group_id = ? AND id BETWEEN ? AND ?",
+                        groupId, low, high);
+            });
+            fromId = high;
+        }
+
+        // Attachments of archived expenses; their blobs are left to the orphan sweep
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM expense_attachments WHERE expense_id IN "
+                        + "(SELECT id FROM archived_expenses WHERE group_id = ?)", groupId));
+        long archived = deleteInChunks("archived_expense_splits", groupId);
+        archived += deleteInChunks("archived_expenses", groupId);
+        long balances = deleteInChunks("balances", groupId);
+        long settlements = deleteInChunks("settlements", groupId);
+        long outbox = deleteInChunks("balance_outbox", groupId);
+        deleteInChunks("group_changes", groupId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM group_versions WHERE group_id = ?", groupId);
+            groupRepository.deleteTombstone(groupId);
+        });
+
+        log.info("Purged deleted group {} in {} ms: {} expenses, {} splits, {} activities, {} archived rows, "
+                + "{} balances, {} settlements, {} outbox entries", groupId, System.currentTimeMillis() - started,
+                expenses, splits, activities, archived, balances, settlements, outbox);
+    }
+
+    /**
+     * Deletes a group's rows from a table at most chunkSize at a time.
+     *
+     * @return Rows deleted
+     */
+    private long deleteInChunks(String table, Long groupId) {
+        String sql = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                + " WHERE group_id = ? ORDER BY id FETCH FIRST " + chunkSize + " ROWS ONLY)";
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> jdbcTemplate.update(sql, groupId));
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
@@ -1,16 +1,24 @@
 package com.splitwise.splitwiseclone.service;
 
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
 import com.splitwise.splitwiseclone.entity.Group;
 import com.splitwise.splitwiseclone.entity.GroupMember;
+import com.splitwise.splitwiseclone.enums.ActivityType;
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
 import com.splitwise.splitwiseclone.enums.GroupRole;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
 import com.splitwise.splitwiseclone.repository.GroupMemberRepository;
 import com.splitwise.splitwiseclone.repository.GroupRepository;
+import com.splitwise.splitwiseclone.repository.RecurringExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for group management operations
@@ -23,8 +31,14 @@ public class GroupService {
 
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
 
     private final com.splitwise.splitwiseclone.repository.UserRepository userRepository;
+    private final GroupVersionService groupVersionService;
+    private final GroupMembershipIndex membershipIndex;
+    private final ActivityFeedService activityFeedService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new group and adds the creator as an admin.
@@ -53,6 +67,10 @@ public class GroupService {
                 .build();
 
         groupMemberRepository.save(adminMember);
+        membershipIndex.memberAdded(group.getId(), createdBy);
+        groupVersionService.initialize(group.getId());
+
+        publishGroupChange(group.getId(), GroupChangeType.MEMBER_ADDED, createdBy, createdBy);
 
         return group;
     }
@@ -88,6 +106,12 @@ public class GroupService {
                 .build();
 
         groupMemberRepository.save(newMember);
+        membershipIndex.memberAdded(groupId, userId);
+        activityFeedService.recordMembership(ActivityType.MEMBER_ADDED, groupId, userId, requestingUserId);
+        outboxService.publish("group.member_added", "group", groupId, groupId,
+                Map.of("groupId", groupId, "userId", userId, "actorId", requestingUserId));
+
+        publishGroupChange(groupId, GroupChangeType.MEMBER_ADDED, userId, requestingUserId);
     }
 
     /**
@@ -112,6 +136,12 @@ public class GroupService {
         }
 
         groupMemberRepository.deleteByGroupIdAndUserId(groupId, userId);
+        membershipIndex.memberRemoved(groupId, userId);
+        activityFeedService.recordMembership(ActivityType.MEMBER_REMOVED, groupId, userId, requestingUserId);
+        outboxService.publish("group.member_removed", "group", groupId, groupId,
+                Map.of("groupId", groupId, "userId", userId, "actorId", requestingUserId));
+
+        publishGroupChange(groupId, GroupChangeType.MEMBER_REMOVED, userId, requestingUserId);
     }
 
     /**
@@ -123,6 +153,7 @@ public class GroupService {
     @Transactional(readOnly = true)
     public Group getGroupById(Long groupId) {
         return groupRepository.findById(groupId)
+                .filter(group -> group.getDeletedAt() == null)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found"));
     }
 
@@ -164,7 +195,9 @@ public class GroupService {
     }
 
     /**
-     * Checks if a user is a member of the group.
+     * Checks if a user is a member of the group. Authorization always reads
+     * the database: the in-memory index may lag behind changes made on other
+     * nodes.
      *
      * @param userId  User ID
      * @param groupId Group ID
@@ -175,6 +208,20 @@ public class GroupService {
         return groupMemberRepository.existsByGroupIdAndUserId(groupId, userId);
     }
 
+    /**
+     * Validates that the payer and every participant of a group expense are
+     * members of the group, in one pass over the membership index.
+     *
+     * @param groupId      Group ID
+     * @param paidBy       ID of the user who paid
+     * @param participants Split participants
+     * @throws IllegalArgumentException if any of them is not a member
+     */
+    @Transactional(readOnly = true)
+    public void validateExpenseParticipants(Long groupId, Long paidBy, List<SplitParticipant> participants) {
+        membershipIndex.validateParticipants(groupId, paidBy, participants);
+    }
+
     /**
      * Checks if a user is an admin of the group.
      *
@@ -202,21 +249,40 @@ public class GroupService {
         Group group = getGroupById(groupId);
         group.setName(name);
         group.setDescription(description);
-        return groupRepository.save(group);
+        group = groupRepository.save(group);
+
+        publishGroupChange(groupId, GroupChangeType.GROUP_UPDATED, groupId, null);
+
+        return group;
     }
 
     /**
-     * Deletes a group and its members.
+     * Deletes a group. The group is tombstoned and its members removed right
+     * away; expenses, splits, balances and settlements are purged in the
+     * background by GroupPurgeService.
      *
      * @param groupId Group ID to delete
      */
     public void deleteGroup(Long groupId) {
         log.info("Deleting group {}", groupId);
-        // Members and expenses should be deleted by cascade or manually
-        // For simplicity, let's just delete the group.
-        // In a real app, we might want to prevent deletion if there are unsettled
-        // balances.
-        groupMemberRepository.deleteByGroupId(groupId);
-        groupRepository.deleteById(groupId);
+        Group group = getGroupById(groupId);
+        groupMemberRepository.deleteAllByGroupIdInBulk(groupId);
+        recurringExpenseRepository.deleteAll(recurringExpenseRepository.findByGroupIdOrderByIdAsc(groupId));
+        group.setDeletedAt(LocalDateTime.now());
+        groupRepository.save(group);
+        membershipIndex.groupDeleted(groupId);
+        outboxService.publish("group.deleted", "group", groupId, groupId,
+                Map.of("groupId", groupId, "deletedAt", group.getDeletedAt()));
+
+        publishGroupChange(groupId, GroupChangeType.GROUP_DELETED, groupId, null);
+    }
+
+    private void publishGroupChange(Long groupId, GroupChangeType type, Long entityId, Long actorId) {
+        eventPublisher.publishEvent(GroupChangeEvent.builder()
+                .groupId(groupId)
+                .type(type)
+                .entityId(entityId)
+                .actorId(actorId)
+                .build());
     }
 }
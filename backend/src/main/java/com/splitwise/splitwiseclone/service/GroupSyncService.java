@@ -0,0 +1,316 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.GroupMemberDto;
+import com.splitwise.splitwiseclone.dto.GroupSyncResponse;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.ExpenseSplit;
+import com.splitwise.splitwiseclone.entity.Group;
+import com.splitwise.splitwiseclone.entity.GroupChange;
+import com.splitwise.splitwiseclone.entity.GroupMember;
+import com.splitwise.splitwiseclone.entity.User;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import com.splitwise.splitwiseclone.repository.ExpenseRepository;
+import com.splitwise.splitwiseclone.repository.ExpenseSplitRepository;
+import com.splitwise.splitwiseclone.repository.GroupChangeRepository;
+import com.splitwise.splitwiseclone.repository.GroupMemberRepository;
+import com.splitwise.splitwiseclone.repository.SettlementRepository;
+import com.splitwise.splitwiseclone.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for clients that keep a local copy of a group.
+ * <p>
+ * Every versioned GroupChangeEvent is recorded in group_changes, one row per
+ * touched entity, in the transaction that bumps the group version. A sync
+ * reads the rows after the client's version through the (group_id, version)
+ * index and returns the current state of the touched entities, or tombstones
+ * for the ones that no longer exist. A client that is up to date costs one
+ * empty index probe.
+ * <p>
+ * Rows older than {@code sync.change-log.retention} are pruned; clients whose
+ * version predates the retained history get {@code reset} and reload the group.
+ * <p>
+ * changedAt is taken before the recording transaction commits, so a change
+ * can become visible after a client synced past its timestamp. Syncs by time
+ * therefore start {@code sync.since-time-margin} (longer than any write
+ * transaction) early; the overlap only repeats changes the client already has.
+ */
+@Service
+@Slf4j
+public class GroupSyncService {
+
+    private final GroupChangeRepository groupChangeRepository;
+    private final GroupService groupService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final ExpenseArchiveService expenseArchiveService;
+    private final SettlementRepository settlementRepository;
+    private final BalanceService balanceService;
+    private final GroupMemberRepository groupMemberRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxVersionsPerSync;
+    private final Duration retention;
+    private final int pruneChunkSize;
+    private final Duration sinceTimeMargin;
+
+    public GroupSyncService(
+            GroupChangeRepository groupChangeRepository,
+            GroupService groupService,
+            GroupVersionService groupVersionService,
+            ExpenseRepository expenseRepository,
+            ExpenseSplitRepository expenseSplitRepository,
+            ExpenseArchiveService expenseArchiveService,
+            SettlementRepository settlementRepository,
+            BalanceService balanceService,
+            GroupMemberRepository groupMemberRepository,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${sync.max-versions:500}") int maxVersionsPerSync,
+            @Value("${sync.change-log.retention:P90D}") Duration retention,
+            @Value("${sync.change-log.prune-chunk-size:1000}") int pruneChunkSize,
+            @Value("${sync.since-time-margin:PT5M}") Duration sinceTimeMargin) {
+        this.groupChangeRepository = groupChangeRepository;
+        this.groupService = groupService;
+        this.groupVersionService = groupVersionService;
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        this.expenseArchiveService = expenseArchiveService;
+        this.settlementRepository = settlementRepository;
+        this.balanceService = balanceService;
+        this.groupMemberRepository = groupMemberRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxVersionsPerSync = maxVersionsPerSync;
+        this.retention = retention;
+        this.pruneChunkSize = pruneChunkSize;
+        this.sinceTimeMargin = sinceTimeMargin;
+    }
+
+    /**
+     * Records the entities touched by a change, after GroupVersionService has
+     * assigned its version, in the publishing transaction.
+     */
+    @EventListener
+    @Order(1)
+    public void onGroupChange(GroupChangeEvent event) {
+        if (event.getGroupId() == null || event.getVersion() == null) {
+            return;
+        }
+        List<Long> entityIds = event.getEntityIds() != null && !event.getEntityIds().isEmpty()
+                ? event.getEntityIds()
+                : Collections.singletonList(event.getEntityId());
+        LocalDateTime now = LocalDateTime.now();
+        List<GroupChange> changes = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            changes.add(GroupChange.builder()
+                    .groupId(event.getGroupId())
+                    .version(event.getVersion())
+                    .changeType(event.getType())
+                    .entityId(entityId)
+                    .changedAt(now)
+                    .build());
+        }
+        groupChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * Gets the changes to a group after a version or a point in time, at most
+     * sync.max-versions versions at a time.
+     *
+     * @param groupId   Group ID
+     * @param since     Version the client has; takes precedence over sinceTime
+     * @param sinceTime Time of the client's last sync, if it has no version;
+     *                  changes up to sync.since-time-margin before it are
+     *                  returned again
+     * @param userId    ID of the requesting user
+     * @return The changes
+     * @throws IllegalArgumentException if the group does not exist
+     * @throws SecurityException        if the user is not a member of the group
+     */
+    @Transactional(readOnly = true)
+    public GroupSyncResponse sync(Long groupId, Long since, LocalDateTime sinceTime, Long userId) {
+        Group group = groupService.getGroupById(groupId);
+        if (!groupService.isUserMemberOfGroup(userId, groupId)) {
+            throw new SecurityException("You are not a member of this group");
+        }
+
+        long from;
+        if (since != null) {
+            from = since;
+        } else if (sinceTime != null) {
+            from = groupChangeRepository.findLastVersionAt(groupId, sinceTime.minus(sinceTimeMargin)).orElse(0L);
+        } else {
+            from = 0L;
+        }
+
+        long until = from + maxVersionsPerSync;
+        List<GroupChange> changes = groupChangeRepository.findVersionRange(groupId, from, until);
+        if (changes.isEmpty()) {
+            return GroupSyncResponse.builder().groupId(groupId).fromVersion(from).version(from).build();
+        }
+        if (changes.get(0).getVersion() != from + 1) {
+            // The log was pruned past the client's version, or the group predates the log
+            return GroupSyncResponse.builder()
+                    .groupId(groupId)
+                    .fromVersion(from)
+                    .version(groupVersionService.getVersion(groupId))
+                    .reset(true)
+                    .build();
+        }
+
+        long version = changes.get(changes.size() - 1).getVersion();
+        boolean hasMore = version == until
+                && groupChangeRepository.existsByGroupIdAndVersionGreaterThan(groupId, version);
+        GroupSyncResponse.GroupSyncResponseBuilder response = GroupSyncResponse.builder()
+                .groupId(groupId)
+                .fromVersion(from)
+                .version(version)
+                .hasMore(hasMore);
+
+        Set<Long> expenseIds = new LinkedHashSet<>();
+        Set<Long> settlementIds = new LinkedHashSet<>();
+        Set<Long> memberIds = new LinkedHashSet<>();
+        boolean balancesChanged = false;
+        boolean groupChanged = false;
+        for (GroupChange change : changes) {
+            switch (change.getChangeType()) {
+                case EXPENSE_CREATED, EXPENSE_UPDATED, EXPENSE_DELETED -> {
+                    expenseIds.add(change.getEntityId());
+                    balancesChanged = true;
+                }
+                case SETTLEMENT_CREATED -> {
+                    settlementIds.add(change.getEntityId());
+                    balancesChanged = true;
+                }
+                case BALANCES_UPDATED -> balancesChanged = true;
+                case MEMBER_ADDED, MEMBER_REMOVED -> memberIds.add(change.getEntityId());
+                case GROUP_UPDATED -> groupChanged = true;
+                default -> {
+                }
+            }
+        }
+
+        if (groupChanged || from == 0) {
+            response.group(group);
+        }
+        if (!expenseIds.isEmpty()) {
+            addExpenses(response, group, expenseIds);
+        }
+        if (!settlementIds.isEmpty()) {
+            response.settlements(settlementRepository.findAllById(settlementIds));
+        }
+        if (balancesChanged) {
+            response.balances(balanceService.getGroupBalances(groupId));
+        }
+        if (!memberIds.isEmpty()) {
+            addMembers(response, groupId, memberIds);
+        }
+        return response.build();
+    }
+
+    /**
+     * Deletes change log rows older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${sync.change-log.prune-interval:3600000}",
+            initialDelayString = "${sync.change-log.prune-initial-delay:60000}")
+    public void pruneChangeLog() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        String sql = "DELETE FROM group_changes WHERE id IN (SELECT id FROM group_changes WHERE changed_at < ? "
+                + "ORDER BY id FETCH FIRST " + pruneChunkSize + " ROWS ONLY)";
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> jdbcTemplate.update(sql, cutoff));
+            total += deleted;
+        } while (deleted == pruneChunkSize);
+        if (total > 0) {
+            log.info("Pruned {} group change log rows older than {}", total, retention);
+        }
+    }
+
+    private void addExpenses(GroupSyncResponse.GroupSyncResponseBuilder response, Group group, Set<Long> expenseIds) {
+        Map<Long, Expense> expenses = expenseRepository.findAllById(expenseIds).stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+        List<ExpenseSplit> splits = new ArrayList<>(expenses.isEmpty()
+                ? List.of()
+                : expenseSplitRepository.findByExpenseIdIn(expenses.keySet()));
+
+        if (expenses.size() < expenseIds.size() && group.getArchivedAt() != null) {
+            List<Long> missing = expenseIds.stream().filter(id -> !expenses.containsKey(id)).toList();
+            expenseArchiveService.findArchivedExpenses(missing).forEach(e -> expenses.put(e.getId(), e));
+            splits.addAll(expenseArchiveService.getArchivedExpenseSplits(missing));
+        }
+
+        List<Expense> current = new ArrayList<>(expenses.size());
+        List<Long> deleted = new ArrayList<>();
+        for (Long id : expenseIds) {
+            Expense expense = expenses.get(id);
+            if (expense != null) {
+                current.add(expense);
+            } else {
+                deleted.add(id);
+            }
+        }
+        response.expenses(current).splits(splits).deletedExpenseIds(deleted);
+    }
+
+    private void addMembers(GroupSyncResponse.GroupSyncResponseBuilder response, Long groupId, Set<Long> userIds) {
+        Map<Long, GroupMember> members = new LinkedHashMap<>();
+        for (GroupMember member : groupMemberRepository.findByGroupId(groupId)) {
+            if (userIds.contains(member.getUserId())) {
+                members.put(member.getUserId(), member);
+            }
+        }
+        Map<Long, User> users = userRepository.findAllById(members.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<GroupMemberDto> current = new ArrayList<>(members.size());
+        List<Long> removed = new ArrayList<>();
+        for (Long userId : userIds) {
+            GroupMember member = members.get(userId);
+            if (member == null) {
+                removed.add(userId);
+                continue;
+            }
+            User user = users.get(userId);
+            current.add(GroupMemberDto.builder()
+                    .id(member.getId())
+                    .groupId(member.getGroupId())
+                    .userId(member.getUserId())
+                    .userName(user != null ? user.getName() : "Unknown")
+                    .userEmail(user != null ? user.getEmail() : "")
+                    .role(member.getRole())
+                    .joinedAt(member.getJoinedAt())
+                    .build());
+        }
+        response.members(current).removedMemberIds(removed);
+    }
+}
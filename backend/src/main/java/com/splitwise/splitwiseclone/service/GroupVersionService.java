@@ -0,0 +1,102 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.GroupVersion;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import com.splitwise.splitwiseclone.repository.GroupVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains a monotonically increasing version per group and derives strong
+ * ETags from it. The version is bumped inside the transaction that publishes a
+ * GroupChangeEvent (the row lock serializes concurrent writers of a group).
+ * Revalidation reads the committed version from the database every time, a
+ * single primary-key lookup, so that writes made through any instance are
+ * visible to conditional GETs on every other one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GroupVersionService {
+
+    private final GroupVersionRepository groupVersionRepository;
+
+    /**
+     * Bumps the group version as part of the current transaction and stamps it
+     * on the event for downstream listeners.
+     */
+    @EventListener
+    @Order(0)
+    public void onGroupChange(GroupChangeEvent event) {
+        if (event.getGroupId() == null) {
+            return;
+        }
+        event.setVersion(bump(event.getGroupId()));
+    }
+
+    /**
+     * Gets the latest committed version of a group (0 if it never changed).
+     *
+     * @param groupId Group ID
+     * @return Current version
+     */
+    public long getVersion(Long groupId) {
+        return groupVersionRepository.findVersionByGroupId(groupId).orElse(0L);
+    }
+
+    /**
+     * Builds a strong ETag for a group-scoped resource.
+     *
+     * @param groupId  Group ID
+     * @param resource Name of the representation (e.g. "expenses")
+     * @return Quoted ETag value
+     */
+    public String eTag(Long groupId, String resource) {
+        return "\"g" + groupId + "-v" + getVersion(groupId) + "-" + resource + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against the current ETag.
+     *
+     * @param ifNoneMatch Raw header value, may be null
+     * @param eTag        Current ETag
+     * @return true if the client's copy is current
+     */
+    public boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the version row for a new group so that later bumps never race
+     * on the initial insert.
+     *
+     * @param groupId Group ID
+     */
+    public void initialize(Long groupId) {
+        groupVersionRepository.save(GroupVersion.builder().groupId(groupId).version(0L).build());
+    }
+
+    private long bump(Long groupId) {
+        if (groupVersionRepository.increment(groupId) == 0) {
+            // Groups created before versioning existed get their row lazily
+            groupVersionRepository.saveAndFlush(GroupVersion.builder().groupId(groupId).version(1L).build());
+            return 1L;
+        }
+        return groupVersionRepository.findVersionByGroupId(groupId).orElseThrow();
+    }
+}
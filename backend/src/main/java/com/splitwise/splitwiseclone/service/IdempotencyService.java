@@ -0,0 +1,142 @@
+package com.splitwise.splitwiseclone.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * In-memory store for Idempotency-Key handling on non-idempotent POSTs.
+ * The first request with a key executes and its response is kept for a TTL;
+ * retries with the same key and payload get that response back without the
+ * action running again. When the store is full the oldest keys are evicted,
+ * so every request is still deduplicated against the most recent ones.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Entries in insertion order, which is also expiry order since the TTL is fixed */
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlMs;
+    private final int maxEntries;
+
+    public IdempotencyService(
+            @Value("${idempotency.ttl:86400000}") long ttlMs,
+            @Value("${idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs an action at most once per (scope, key).
+     *
+     * @param scope       Namespace of the key, e.g. endpoint and user
+     * @param key         Client supplied Idempotency-Key, may be null
+     * @param fingerprint The request payload; a key reused with a different
+     *                    payload is rejected
+     * @param action      The action producing the response
+     * @return The action's response, or the stored response for a retry
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object fingerprint,
+            Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (entries.size() >= maxEntries) {
+            evictOldest();
+        }
+
+        String storeKey = scope + ":" + key;
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(storeKey, fingerprint, now + ttlMs);
+        Entry existing = entries.compute(storeKey,
+                (k, current) -> current == null || current.expiresAt < now ? entry : current);
+
+        if (existing != entry) {
+            if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                return (ResponseEntity<T>) ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(Map.of("message", "Idempotency-Key was already used with a different request"));
+            }
+            ResponseEntity<?> stored = existing.response;
+            if (stored == null) {
+                return (ResponseEntity<T>) ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "A request with this Idempotency-Key is still in progress"));
+            }
+            log.info("Replaying response for Idempotency-Key {}", key);
+            return (ResponseEntity<T>) ResponseEntity.status(stored.getStatusCode())
+                    .headers(stored.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(stored.getBody());
+        }
+        insertionOrder.add(entry);
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(storeKey, entry);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError() || response.getStatusCode() == HttpStatus.CONFLICT) {
+            // Let the client retry server-side failures and concurrent-modification conflicts for real
+            entries.remove(storeKey, entry);
+        } else {
+            entry.response = response;
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null && oldest.expiresAt < now) {
+            if (insertionOrder.remove(oldest)) {
+                entries.remove(oldest.storeKey, oldest);
+            }
+        }
+    }
+
+    private void evictOldest() {
+        purgeExpired();
+        int evicted = 0;
+        Entry oldest;
+        while (entries.size() >= maxEntries && (oldest = insertionOrder.poll()) != null) {
+            // Entries already removed (failed requests, replaced after expiry) are skipped
+            if (entries.remove(oldest.storeKey, oldest)) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.warn("Idempotency store full, evicted the {} oldest keys", evicted);
+        }
+    }
+
+    private static final class Entry {
+        private final String storeKey;
+        private final Object fingerprint;
+        private final long expiresAt;
+        private volatile ResponseEntity<?> response;
+
+        private Entry(String storeKey, Object fingerprint, long expiresAt) {
+            this.storeKey = storeKey;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
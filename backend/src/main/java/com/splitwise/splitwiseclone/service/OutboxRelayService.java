@@ -0,0 +1,296 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import com.splitwise.splitwiseclone.enums.OutboxStatus;
+import com.splitwise.splitwiseclone.event.OutboxSink;
+import com.splitwise.splitwiseclone.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers outbox events to every {@link OutboxSink} in batches.
+ * <p>
+ * A batch is claimed with SELECT ... FOR UPDATE SKIP LOCKED and leased to
+ * this relay for {@code outbox.lease} in a short transaction; the sinks are
+ * called after it committed, holding no row locks or connection, and the
+ * delivered events are deleted in a second transaction. Several nodes can
+ * relay concurrently and only one batch per node is ever in memory. If the
+ * node dies, or the lease runs out, before the delete committed, the events
+ * are delivered again: delivery is at least once and consumers dedupe by
+ * event id.
+ * <p>
+ * A failed batch is retried event by event to tell the two kinds of failure
+ * apart. If nothing gets through and {@link OutboxSink#probe()} fails too, the
+ * sinks are unavailable: the batch is put back untouched and the relay pauses
+ * with exponential backoff, so an outage never uses up attempts. Otherwise the
+ * events that failed on their own, including a lone event in a batch of one,
+ * are retried with exponential backoff and marked DEAD after
+ * {@code outbox.max-attempts}; DEAD events stay in the table for inspection
+ * and go back to PENDING with {@link #requeueDead()}.
+ * <p>
+ * The {@code outbox.events.pending} gauge reads a count the relay refreshes at
+ * most every {@code outbox.stats-interval}, so scrapes never query the outbox.
+ */
+@Service
+@Slf4j
+public class OutboxRelayService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration statsInterval;
+
+    private final Counter deliveredEvents;
+    private final Counter failedBatches;
+    private final Counter deadEvents;
+
+    // Sink outage state, only touched by the scheduler thread
+    private int outages;
+    private LocalDateTime pausedUntil = LocalDateTime.MIN;
+
+    // Snapshot for the pending gauge, refreshed by the scheduler thread
+    private volatile long pendingEvents;
+    private LocalDateTime pendingCountedAt = LocalDateTime.MIN;
+
+    public OutboxRelayService(
+            OutboxEventRepository outboxEventRepository,
+            List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.enabled:true}") boolean enabled,
+            @Value("${outbox.batch-size:200}") int batchSize,
+            @Value("${outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${outbox.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.lease:PT1M}") Duration lease,
+            @Value("${outbox.initial-backoff:PT5S}") Duration initialBackoff,
+            @Value("${outbox.max-backoff:PT30M}") Duration maxBackoff,
+            @Value("${outbox.stats-interval:PT15S}") Duration statsInterval) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.statsInterval = statsInterval;
+        this.deliveredEvents = meterRegistry.counter("outbox.events.delivered");
+        this.failedBatches = meterRegistry.counter("outbox.batches.failed");
+        this.deadEvents = meterRegistry.counter("outbox.events.dead");
+        Gauge.builder("outbox.events.pending", this, OutboxRelayService::getPendingEvents)
+                .description("Outbox events not yet delivered, as of the relay's last count")
+                .register(meterRegistry);
+        log.info("Outbox relay {} with sinks {}", enabled ? "enabled" : "disabled",
+                sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    /**
+     * Relays due events until the outbox is drained, the per-run batch limit
+     * is reached or the sinks turn out to be unavailable.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:1000}", initialDelayString = "${outbox.initial-delay:5000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        // Counted even while paused: the backlog of an outage is what the gauge is for
+        countPending();
+        if (sinks.isEmpty() || LocalDateTime.now().isBefore(pausedUntil)) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            try {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("Outbox relay failed: {}", e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims, delivers and deletes one batch of due events.
+     *
+     * @return Number of events claimed, or 0 if the sinks are unavailable
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        Exception batchError = send(batch);
+        if (batchError == null) {
+            acknowledge(batch);
+            return batch.size();
+        }
+        failedBatches.increment();
+
+        List<OutboxEvent> delivered = new ArrayList<>();
+        Map<OutboxEvent, Exception> rejected = new LinkedHashMap<>();
+        if (batch.size() > 1) {
+            for (OutboxEvent event : batch) {
+                Exception error = send(List.of(event));
+                if (error == null) {
+                    delivered.add(event);
+                } else {
+                    rejected.put(event, error);
+                }
+            }
+        } else {
+            rejected.put(batch.get(0), batchError);
+        }
+        if (delivered.isEmpty()) {
+            Exception outage = probe();
+            if (outage != null) {
+                pause(batch, outage);
+                return 0;
+            }
+            outages = 0;
+        } else {
+            acknowledge(delivered);
+        }
+        reschedule(rejected);
+        return batch.size();
+    }
+
+    /**
+     * Outbox events not yet delivered, as of the relay's last count.
+     */
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+
+    /**
+     * Moves every DEAD event back to PENDING with its attempts reset, e.g.
+     * once a sink that rejected them has been fixed.
+     *
+     * @return Number of events requeued
+     */
+    public int requeueDead() {
+        Integer requeued = transactionTemplate.execute(status ->
+                outboxEventRepository.requeueDead(LocalDateTime.now()));
+        log.info("Requeued {} dead outbox events", requeued);
+        return requeued != null ? requeued : 0;
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        if (!batch.isEmpty()) {
+            outboxEventRepository.lease(batch.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+        }
+        return batch;
+    }
+
+    private Exception send(List<OutboxEvent> events) {
+        try {
+            for (OutboxSink sink : sinks) {
+                sink.deliver(events);
+            }
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private Exception probe() {
+        try {
+            for (OutboxSink sink : sinks) {
+                sink.probe();
+            }
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private void countPending() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(pendingCountedAt.plus(statsInterval))) {
+            return;
+        }
+        pendingCountedAt = now;
+        try {
+            pendingEvents = outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+        } catch (Exception e) {
+            log.warn("Counting pending outbox events failed: {}", e.getMessage());
+        }
+    }
+
+    private void acknowledge(List<OutboxEvent> events) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList()));
+        deliveredEvents.increment(events.size());
+        outages = 0;
+    }
+
+    /**
+     * Nothing got through and the sinks fail the probe: keeps the batch as it
+     * is, due again when the relay resumes, without counting an attempt
+     * against its events.
+     */
+    private void pause(List<OutboxEvent> batch, Exception cause) {
+        outages++;
+        pausedUntil = LocalDateTime.now().plus(backoff(outages));
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.lease(batch.stream().map(OutboxEvent::getId).toList(), pausedUntil));
+        log.warn("Outbox sinks unavailable, pausing the relay until {}: {}", pausedUntil, cause.getMessage());
+    }
+
+    private void reschedule(Map<OutboxEvent, Exception> rejected) {
+        if (rejected.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int dead = 0;
+        for (Map.Entry<OutboxEvent, Exception> entry : rejected.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            String error = String.valueOf(entry.getValue().getMessage());
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxStatus.DEAD);
+                dead++;
+            } else {
+                event.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(rejected.keySet()));
+        deadEvents.increment(dead);
+        log.warn("Delivering {} outbox events failed ({} dead): {}", rejected.size(), dead,
+                rejected.values().iterator().next().getMessage());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,57 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import com.splitwise.splitwiseclone.enums.OutboxStatus;
+import com.splitwise.splitwiseclone.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records domain events in the outbox_events table. Events are written in the
+ * caller's transaction, so an event exists if and only if the change it
+ * describes was committed; OutboxRelayService delivers them afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Adds an event to the outbox. Must be called inside the transaction that
+     * performs the change.
+     *
+     * @param eventType     Event type, e.g. expense.created
+     * @param aggregateType Kind of entity the event is about, e.g. expense
+     * @param aggregateId   ID of that entity
+     * @param groupId       Group ID, or null for non-group events
+     * @param payload       Event body, serialized to JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, String aggregateType, Long aggregateId, Long groupId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .groupId(groupId)
+                .payload(json)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+}
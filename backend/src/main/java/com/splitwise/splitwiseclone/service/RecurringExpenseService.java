@@ -0,0 +1,488 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.dto.CreateRecurringExpenseRequest;
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
+import com.splitwise.splitwiseclone.entity.Expense;
+import com.splitwise.splitwiseclone.entity.RecurringExpense;
+import com.splitwise.splitwiseclone.entity.RecurringExpenseParticipant;
+import com.splitwise.splitwiseclone.enums.GroupChangeType;
+import com.splitwise.splitwiseclone.event.GroupChangeEvent;
+import com.splitwise.splitwiseclone.repository.ExpenseRepository;
+import com.splitwise.splitwiseclone.repository.ExpenseSplitRepository;
+import com.splitwise.splitwiseclone.repository.RecurringExpenseRepository;
+import com.splitwise.splitwiseclone.service.strategy.SplitStrategyFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring expense definitions and the scheduler that turns them into
+ * expenses.
+ * <p>
+ * Each poll makes one pass over the due definitions in chunks (one
+ * transaction per chunk, ordered by group) and generates the occurrences that
+ * are due, so missed runs are caught up after downtime; at most
+ * maxOccurrencesPerRun per definition and run, the rest follow on later runs.
+ * When a chunk fails, its definitions are retried one per transaction and the
+ * one that fails again is skipped until the next run, so a broken definition
+ * never holds back the others. Expenses, splits and their expense.created
+ * outbox events are written per occurrence, but balances are updated once per group per chunk from the
+ * netted splits; with the async balance pipeline enabled the expenses are
+ * queued for the group's writer instead. An occurrence is generated in the
+ * same transaction that advances nextRunAt, and the unique
+ * (recurring_expense_id, recurrence_date) constraint on expenses guards
+ * against duplicates on top of that.
+ */
+@Service
+@Slf4j
+public class RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final SplitStrategyFactory splitStrategyFactory;
+    private final GroupService groupService;
+    private final GroupMembershipIndex membershipIndex;
+    private final BalanceService balanceService;
+    private final BalancePipelineService balancePipelineService;
+    private final ExpenseArchiveService expenseArchiveService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxOccurrencesPerRun;
+
+    public RecurringExpenseService(
+            RecurringExpenseRepository recurringExpenseRepository,
+            ExpenseRepository expenseRepository,
+            ExpenseSplitRepository expenseSplitRepository,
+            SplitStrategyFactory splitStrategyFactory,
+            GroupService groupService,
+            GroupMembershipIndex membershipIndex,
+            BalanceService balanceService,
+            BalancePipelineService balancePipelineService,
+            ExpenseArchiveService expenseArchiveService,
+            OutboxService outboxService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${recurring.enabled:true}") boolean enabled,
+            @Value("${recurring.chunk-size:100}") int chunkSize,
+            @Value("${recurring.max-occurrences-per-run:31}") int maxOccurrencesPerRun) {
+        this.recurringExpenseRepository = recurringExpenseRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        this.splitStrategyFactory = splitStrategyFactory;
+        this.groupService = groupService;
+        this.membershipIndex = membershipIndex;
+        this.balanceService = balanceService;
+        this.balancePipelineService = balancePipelineService;
+        this.expenseArchiveService = expenseArchiveService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.generatedCounter = Counter.builder("splitwise.recurring.generated")
+                .description("Expenses generated from recurring expenses")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("splitwise.recurring.failed")
+                .description("Recurring expenses skipped for a run because generating them failed")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxOccurrencesPerRun = maxOccurrencesPerRun;
+    }
+
+    /**
+     * Creates a recurring expense. The first occurrence is generated by the
+     * next scheduler run at or after the start date.
+     *
+     * @param request Definition details
+     * @param userId  ID of the user creating it
+     * @return The created definition
+     */
+    @Transactional
+    public RecurringExpense createRecurringExpense(CreateRecurringExpenseRequest request, Long userId) {
+        log.info("Creating recurring expense: {} for amount: {} by user: {}",
+                request.getDescription(), request.getAmount(), userId);
+
+        List<SplitParticipant> participants = request.getParticipants();
+        if (request.getGroupId() != null) {
+            if (!groupService.isUserMemberOfGroup(userId, request.getGroupId())) {
+                throw new SecurityException("You are not a member of this group");
+            }
+            groupService.validateExpenseParticipants(request.getGroupId(), request.getPaidBy(), participants);
+        } else if (!request.getPaidBy().equals(userId)) {
+            throw new SecurityException("Personal recurring expenses must be paid by their creator");
+        }
+
+        // Rejects invalid split details up front rather than on every run
+        splitStrategyFactory.getStrategy(request.getSplitType()).calculateSplit(request.getAmount(), participants);
+
+        boolean cron = request.getCronExpression() != null && !request.getCronExpression().isBlank();
+        if (cron == (request.getFrequency() != null)) {
+            throw new IllegalArgumentException("Exactly one of frequency or cronExpression is required");
+        }
+        if (cron && !CronExpression.isValidExpression(request.getCronExpression())) {
+            throw new IllegalArgumentException("Invalid cron expression: " + request.getCronExpression());
+        }
+
+        LocalDateTime startDate = request.getStartDate() != null ? request.getStartDate() : LocalDateTime.now();
+        if (request.getEndDate() != null && request.getEndDate().isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        RecurringExpense recurring = RecurringExpense.builder()
+                .groupId(request.getGroupId())
+                .paidBy(request.getPaidBy())
+                .createdBy(userId)
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .category(request.getCategory())
+                .currency(request.getCurrency())
+                .splitType(request.getSplitType())
+                .participants(participants.stream()
+                        .map(p -> RecurringExpenseParticipant.builder()
+                                .userId(p.getUserId())
+                                .amount(p.getAmount())
+                                .percentage(p.getPercentage())
+                                .shares(p.getShares())
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .frequency(cron ? null : request.getFrequency())
+                .intervalCount(cron ? null : Objects.requireNonNullElse(request.getInterval(), 1))
+                .cronExpression(cron ? request.getCronExpression().trim() : null)
+                .startDate(startDate)
+                .endDate(request.getEndDate())
+                .active(true)
+                .build();
+        recurring.setNextRunAt(within(recurring, occurrenceAfter(recurring, null)));
+        recurring.setActive(recurring.getNextRunAt() != null);
+
+        return recurringExpenseRepository.save(recurring);
+    }
+
+    /**
+     * Gets a recurring expense by ID.
+     *
+     * @param id Recurring expense ID
+     * @return The definition
+     */
+    @Transactional(readOnly = true)
+    public RecurringExpense getRecurringExpense(Long id) {
+        return recurringExpenseRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Recurring expense not found"));
+    }
+
+    /**
+     * Gets the recurring expenses of a group.
+     *
+     * @param groupId Group ID
+     * @return List of definitions
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringExpense> getGroupRecurringExpenses(Long groupId) {
+        return recurringExpenseRepository.findByGroupIdOrderByIdAsc(groupId);
+    }
+
+    /**
+     * Gets the personal (non-group) recurring expenses of a user.
+     *
+     * @param userId User ID
+     * @return List of definitions
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringExpense> getPersonalRecurringExpenses(Long userId) {
+        return recurringExpenseRepository.findPersonalByUserId(userId);
+    }
+
+    /**
+     * Deletes a recurring expense. Expenses already generated from it are kept.
+     * Allowed for its creator, its payer and group admins.
+     *
+     * @param id               Recurring expense ID
+     * @param requestingUserId ID of the user requesting deletion
+     */
+    @Transactional
+    public void deleteRecurringExpense(Long id, Long requestingUserId) {
+        log.info("Deleting recurring expense: {} by user: {}", id, requestingUserId);
+
+        // Waits for a scheduler run that holds the row instead of failing on its version bump
+        RecurringExpense recurring = recurringExpenseRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalArgumentException("Recurring expense not found"));
+        boolean allowed = recurring.getCreatedBy().equals(requestingUserId)
+                || recurring.getPaidBy().equals(requestingUserId)
+                || (recurring.getGroupId() != null && groupService.isGroupAdmin(recurring.getGroupId(), requestingUserId));
+        if (!allowed) {
+            throw new SecurityException("You do not have permission to delete this recurring expense");
+        }
+        recurringExpenseRepository.delete(recurring);
+    }
+
+    /**
+     * Generates the due occurrences, chunk by chunk, in one pass over the due
+     * definitions.
+     */
+    @Scheduled(fixedDelayString = "${recurring.poll-interval:60000}", initialDelayString = "${recurring.initial-delay:10000}")
+    public void generateDueExpenses() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Position position = new Position();
+        int total = 0;
+        try {
+            while (true) {
+                Position start = position.copy();
+                try {
+                    Integer generated = transactionTemplate.execute(status -> generateChunk(now, position, chunkSize));
+                    if (generated == null) {
+                        break;
+                    }
+                    total += generated;
+                } catch (RuntimeException e) {
+                    if (!start.isBefore(position)) {
+                        // Failed before claiming anything, e.g. the database is unavailable
+                        throw e;
+                    }
+                    log.warn("Recurring expense chunk failed, retrying its definitions one by one: {}", e.getMessage());
+                    Position end = position.copy();
+                    position.moveTo(start);
+                    total += generateOneByOne(now, position, end);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Recurring expense generation failed, will retry on next run: {}", e.getMessage(), e);
+        }
+        if (total > 0) {
+            log.info("Generated {} recurring expenses", total);
+        }
+    }
+
+    /**
+     * Generates the definitions up to and including end one per transaction,
+     * skipping those that fail until the next run.
+     *
+     * @return Number of expenses generated
+     */
+    private int generateOneByOne(LocalDateTime now, Position position, Position end) {
+        int total = 0;
+        while (position.isBefore(end)) {
+            Position start = position.copy();
+            try {
+                Integer generated = transactionTemplate.execute(status -> generateChunk(now, position, 1));
+                if (generated == null) {
+                    break;
+                }
+                total += generated;
+            } catch (RuntimeException e) {
+                if (!start.isBefore(position)) {
+                    throw e;
+                }
+                failedCounter.increment();
+                log.error("Skipping recurring expense {} until the next run: {}", position.id, e.getMessage(), e);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Generates the due occurrences of the next chunk of definitions after the
+     * position, which is moved to the last definition claimed.
+     *
+     * @return Number of expenses generated, or null if nothing was due
+     */
+    private Integer generateChunk(LocalDateTime now, Position position, int size) {
+        List<RecurringExpense> due = recurringExpenseRepository.findDueForUpdate(
+                now, position.groupId, position.id, PageRequest.of(0, size));
+        if (due.isEmpty()) {
+            return null;
+        }
+        RecurringExpense last = due.get(due.size() - 1);
+        position.moveTo(Objects.requireNonNullElse(last.getGroupId(), 0L), last.getId());
+
+        boolean async = balancePipelineService.isEnabled();
+        // Keyed by group in query order; personal expenses share the null key
+        Map<Long, GroupBatch> batches = new LinkedHashMap<>();
+        int generated = 0;
+        for (RecurringExpense recurring : due) {
+            List<SplitParticipant> participants = recurring.getParticipants().stream()
+                    .map(p -> SplitParticipant.builder()
+                            .userId(p.getUserId())
+                            .amount(p.getAmount())
+                            .percentage(p.getPercentage())
+                            .shares(p.getShares())
+                            .build())
+                    .toList();
+            List<SplitResult> splits;
+            try {
+                if (recurring.getGroupId() != null) {
+                    membershipIndex.validateParticipants(recurring.getGroupId(), recurring.getPaidBy(), participants);
+                    expenseArchiveService.restoreIfArchived(recurring.getGroupId());
+                }
+                splits = splitStrategyFactory.getStrategy(recurring.getSplitType())
+                        .calculateSplit(recurring.getAmount(), participants);
+            } catch (IllegalArgumentException e) {
+                // E.g. a participant has left the group: stop instead of failing every run
+                log.warn("Deactivating recurring expense {}: {}", recurring.getId(), e.getMessage());
+                recurring.setActive(false);
+                continue;
+            }
+
+            boolean pending = async && recurring.getGroupId() != null;
+            GroupBatch batch = batches.computeIfAbsent(recurring.getGroupId(), id -> new GroupBatch());
+            Map<Long, BigDecimal> amounts = new HashMap<>();
+            for (SplitResult split : splits) {
+                amounts.put(split.getUserId(), split.getAmount());
+            }
+
+            int runs = 0;
+            while (recurring.getNextRunAt() != null && !recurring.getNextRunAt().isAfter(now)
+                    && runs < maxOccurrencesPerRun) {
+                Expense expense = expenseRepository.save(Expense.builder()
+                        .amount(recurring.getAmount())
+                        .description(recurring.getDescription())
+                        .category(recurring.getCategory())
+                        .currency(recurring.getCurrency())
+                        .paidBy(recurring.getPaidBy())
+                        .groupId(recurring.getGroupId())
+                        .splitType(recurring.getSplitType())
+                        .expenseDate(recurring.getNextRunAt())
+                        .recurringExpenseId(recurring.getId())
+                        .recurrenceDate(recurring.getNextRunAt())
+                        .balancePending(pending)
+                        .build());
+                expenseSplitRepository.insertAll(expense.getId(), splits);
+                outboxService.publish("expense.created", "expense", expense.getId(), expense.getGroupId(), expense);
+
+                if (pending) {
+                    batch.pending.add(expense);
+                } else {
+                    batch.ledger.addExpense(recurring.getPaidBy(), amounts, recurring.getCurrency());
+                }
+                batch.expenseIds.add(expense.getId());
+
+                recurring.setOccurrences(recurring.getOccurrences() + 1);
+                recurring.setLastRunAt(now);
+                recurring.setNextRunAt(within(recurring, occurrenceAfter(recurring, recurring.getNextRunAt())));
+                runs++;
+            }
+            if (recurring.getNextRunAt() == null) {
+                recurring.setActive(false);
+            }
+            generated += runs;
+        }
+
+        for (Map.Entry<Long, GroupBatch> entry : batches.entrySet()) {
+            Long groupId = entry.getKey();
+            GroupBatch batch = entry.getValue();
+            if (batch.expenseIds.isEmpty()) {
+                continue;
+            }
+            for (Expense expense : batch.pending) {
+                balancePipelineService.enqueueDelta(expense);
+            }
+            if (batch.ledger.size() > 0) {
+                balanceService.applyBalanceDeltas(groupId, batch.ledger);
+            }
+            if (groupId != null) {
+                eventPublisher.publishEvent(GroupChangeEvent.builder()
+                        .groupId(groupId)
+                        .type(GroupChangeType.EXPENSE_CREATED)
+                        .entityId(batch.expenseIds.get(batch.expenseIds.size() - 1))
+                        .entityIds(batch.expenseIds)
+                        .build());
+            }
+        }
+
+        generatedCounter.increment(generated);
+        return generated;
+    }
+
+    /**
+     * The first occurrence strictly after the given one, or the first
+     * occurrence of the schedule if previous is null.
+     */
+    static LocalDateTime occurrenceAfter(RecurringExpense recurring, LocalDateTime previous) {
+        if (recurring.getCronExpression() != null) {
+            CronExpression cron = CronExpression.parse(recurring.getCronExpression());
+            return cron.next(previous != null ? previous : recurring.getStartDate().minusNanos(1));
+        }
+        // Counted from the start date so monthly schedules on the 31st do not drift to the 28th
+        long steps = (long) (previous != null ? recurring.getOccurrences() : 0) * recurring.getIntervalCount();
+        LocalDateTime start = recurring.getStartDate();
+        return switch (recurring.getFrequency()) {
+            case DAILY -> start.plusDays(steps);
+            case WEEKLY -> start.plusWeeks(steps);
+            case MONTHLY -> start.plusMonths(steps);
+            case YEARLY -> start.plusYears(steps);
+        };
+    }
+
+    private static LocalDateTime within(RecurringExpense recurring, LocalDateTime occurrence) {
+        if (occurrence == null || (recurring.getEndDate() != null && occurrence.isAfter(recurring.getEndDate()))) {
+            return null;
+        }
+        return occurrence;
+    }
+
+    /**
+     * The last definition claimed in a run, in claim order: group ID (0 for
+     * personal definitions), then ID.
+     */
+    private static final class Position {
+        private long groupId;
+        private long id;
+
+        private Position copy() {
+            Position copy = new Position();
+            copy.moveTo(groupId, id);
+            return copy;
+        }
+
+        private void moveTo(Position other) {
+            moveTo(other.groupId, other.id);
+        }
+
+        private void moveTo(long groupId, long id) {
+            this.groupId = groupId;
+            this.id = id;
+        }
+
+        private boolean isBefore(Position other) {
+            return groupId < other.groupId || (groupId == other.groupId && id < other.id);
+        }
+    }
+
+    /**
+     * Work collected for one group within a chunk.
+     */
+    private static final class GroupBatch {
+        private final BalanceLedger ledger = new BalanceLedger();
+        private final List<Expense> pending = new ArrayList<>();
+        private final List<Long> expenseIds = new ArrayList<>();
+    }
+}
@@ -26,6 +26,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthTokenService authTokenService;
 
     /**
      * Registers a new user.
@@ -168,6 +169,9 @@ public class UserService {
 
         resetToken.setUsed(true);
         tokenRepository.save(resetToken);
+
+        // Sign out every session that was using the old password
+        authTokenService.revokeAllRefreshTokens(user.getId());
     }
 
     /**
@@ -1,13 +1,13 @@
 package com.splitwise.splitwiseclone.service.strategy;
 
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Equal split strategy - divides expense equally among all participants
@@ -16,11 +16,11 @@ import java.util.Map;
 public class EqualSplitStrategy implements SplitStrategy {
 
     @Override
-    public Map<Long, BigDecimal> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
+    public List<SplitResult> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
         validate(totalAmount, participants);
 
-        Map<Long, BigDecimal> splits = new HashMap<>();
         int participantCount = participants.size();
+        List<SplitResult> splits = new ArrayList<>(participantCount);
         BigDecimal equalShare = totalAmount.divide(
                 BigDecimal.valueOf(participantCount),
                 2,
@@ -29,13 +29,23 @@ public class EqualSplitStrategy implements SplitStrategy {
         // Handle rounding difference
         BigDecimal totalAssigned = BigDecimal.ZERO;
         for (int i = 0; i < participantCount - 1; i++) {
-            splits.put(participants.get(i).getUserId(), equalShare);
+            splits.add(SplitResult.builder()
+                    .userId(participants.get(i).getUserId())
+                    .amount(equalShare)
+                    .percentage(participants.get(i).getPercentage())
+                    .shares(participants.get(i).getShares())
+                    .build());
             totalAssigned = totalAssigned.add(equalShare);
         }
 
         // Last participant gets the remainder to ensure total matches
         BigDecimal lastShare = totalAmount.subtract(totalAssigned);
-        splits.put(participants.get(participantCount - 1).getUserId(), lastShare);
+        splits.add(SplitResult.builder()
+                .userId(participants.get(participantCount - 1).getUserId())
+                .amount(lastShare)
+                .percentage(participants.get(participantCount - 1).getPercentage())
+                .shares(participants.get(participantCount - 1).getShares())
+                .build());
 
         return splits;
     }
@@ -48,5 +58,6 @@ public class EqualSplitStrategy implements SplitStrategy {
         if (participants == null || participants.isEmpty()) {
             throw new IllegalArgumentException("At least one participant is required");
         }
+        SplitStrategy.requireDistinctUsers(participants);
     }
 }
@@ -1,12 +1,12 @@
 package com.splitwise.splitwiseclone.service.strategy;
 
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Exact split strategy - uses exact amounts specified for each participant
@@ -15,12 +15,17 @@ import java.util.Map;
 public class ExactSplitStrategy implements SplitStrategy {
 
     @Override
-    public Map<Long, BigDecimal> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
+    public List<SplitResult> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
         validate(totalAmount, participants);
 
-        Map<Long, BigDecimal> splits = new HashMap<>();
+        List<SplitResult> splits = new ArrayList<>(participants.size());
         for (SplitParticipant participant : participants) {
-            splits.put(participant.getUserId(), participant.getAmount());
+            splits.add(SplitResult.builder()
+                    .userId(participant.getUserId())
+                    .amount(participant.getAmount())
+                    .percentage(participant.getPercentage())
+                    .shares(participant.getShares())
+                    .build());
         }
 
         return splits;
@@ -34,6 +39,7 @@ public class ExactSplitStrategy implements SplitStrategy {
         if (participants == null || participants.isEmpty()) {
             throw new IllegalArgumentException("At least one participant is required");
         }
+        SplitStrategy.requireDistinctUsers(participants);
 
         BigDecimal sum = BigDecimal.ZERO;
         for (SplitParticipant participant : participants) {
@@ -1,13 +1,13 @@
 package com.splitwise.splitwiseclone.service.strategy;
 
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Percentage split strategy - splits based on percentage for each participant
@@ -16,10 +16,10 @@ import java.util.Map;
 public class PercentageSplitStrategy implements SplitStrategy {
 
     @Override
-    public Map<Long, BigDecimal> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
+    public List<SplitResult> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
         validate(totalAmount, participants);
 
-        Map<Long, BigDecimal> splits = new HashMap<>();
+        List<SplitResult> splits = new ArrayList<>(participants.size());
         BigDecimal totalAssigned = BigDecimal.ZERO;
 
         // Calculate for all but last participant
@@ -28,14 +28,24 @@ public class PercentageSplitStrategy implements SplitStrategy {
             BigDecimal amount = totalAmount
                     .multiply(participant.getPercentage())
                     .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            splits.put(participant.getUserId(), amount);
+            splits.add(SplitResult.builder()
+                    .userId(participant.getUserId())
+                    .amount(amount)
+                    .percentage(participant.getPercentage())
+                    .shares(participant.getShares())
+                    .build());
             totalAssigned = totalAssigned.add(amount);
         }
 
         // Last participant gets remainder to handle rounding
         SplitParticipant lastParticipant = participants.get(participants.size() - 1);
         BigDecimal lastAmount = totalAmount.subtract(totalAssigned);
-        splits.put(lastParticipant.getUserId(), lastAmount);
+        splits.add(SplitResult.builder()
+                .userId(lastParticipant.getUserId())
+                .amount(lastAmount)
+                .percentage(lastParticipant.getPercentage())
+                .shares(lastParticipant.getShares())
+                .build());
 
         return splits;
     }
@@ -48,6 +58,7 @@ public class PercentageSplitStrategy implements SplitStrategy {
         if (participants == null || participants.isEmpty()) {
             throw new IllegalArgumentException("At least one participant is required");
         }
+        SplitStrategy.requireDistinctUsers(participants);
 
         BigDecimal totalPercentage = BigDecimal.ZERO;
         for (SplitParticipant participant : participants) {
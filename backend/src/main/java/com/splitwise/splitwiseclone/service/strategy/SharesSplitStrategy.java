@@ -1,13 +1,13 @@
 package com.splitwise.splitwiseclone.service.strategy;
 
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Shares split strategy - splits based on ratio/shares for each participant
@@ -17,10 +17,10 @@ import java.util.Map;
 public class SharesSplitStrategy implements SplitStrategy {
 
     @Override
-    public Map<Long, BigDecimal> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
+    public List<SplitResult> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants) {
         validate(totalAmount, participants);
 
-        Map<Long, BigDecimal> splits = new HashMap<>();
+        List<SplitResult> splits = new ArrayList<>(participants.size());
 
         // Calculate total shares
         int totalShares = participants.stream()
@@ -35,14 +35,24 @@ public class SharesSplitStrategy implements SplitStrategy {
             BigDecimal amount = totalAmount
                     .multiply(BigDecimal.valueOf(participant.getShares()))
                     .divide(BigDecimal.valueOf(totalShares), 2, RoundingMode.HALF_UP);
-            splits.put(participant.getUserId(), amount);
+            splits.add(SplitResult.builder()
+                    .userId(participant.getUserId())
+                    .amount(amount)
+                    .percentage(participant.getPercentage())
+                    .shares(participant.getShares())
+                    .build());
             totalAssigned = totalAssigned.add(amount);
         }
 
         // Last participant gets remainder to handle rounding
         SplitParticipant lastParticipant = participants.get(participants.size() - 1);
         BigDecimal lastAmount = totalAmount.subtract(totalAssigned);
-        splits.put(lastParticipant.getUserId(), lastAmount);
+        splits.add(SplitResult.builder()
+                .userId(lastParticipant.getUserId())
+                .amount(lastAmount)
+                .percentage(lastParticipant.getPercentage())
+                .shares(lastParticipant.getShares())
+                .build());
 
         return splits;
     }
@@ -55,6 +65,7 @@ public class SharesSplitStrategy implements SplitStrategy {
         if (participants == null || participants.isEmpty()) {
             throw new IllegalArgumentException("At least one participant is required");
         }
+        SplitStrategy.requireDistinctUsers(participants);
 
         for (SplitParticipant participant : participants) {
             if (participant.getShares() == null || participant.getShares() <= 0) {
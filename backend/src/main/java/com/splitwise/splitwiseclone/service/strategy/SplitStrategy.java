@@ -1,10 +1,12 @@
 package com.splitwise.splitwiseclone.service.strategy;
 
 import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.dto.SplitResult;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * Strategy interface for different expense split calculations
@@ -17,9 +19,10 @@ public interface SplitStrategy {
      * 
      * @param totalAmount  Total expense amount
      * @param participants List of participants with their split details
-     * @return Map of userId to amount they owe
+     * @return One result per participant, in participant order, carrying the
+     *         amount owed and the participant's percentage/shares
      */
-    Map<Long, BigDecimal> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants);
+    List<SplitResult> calculateSplit(BigDecimal totalAmount, List<SplitParticipant> participants);
 
     /**
      * Validate that the split configuration is correct
@@ -29,4 +32,19 @@ public interface SplitStrategy {
      * @throws IllegalArgumentException if validation fails
      */
     void validate(BigDecimal totalAmount, List<SplitParticipant> participants);
+
+    /**
+     * Validate that no user appears twice in the participant list
+     *
+     * @param participants List of participants
+     * @throws IllegalArgumentException if a user is listed more than once
+     */
+    static void requireDistinctUsers(List<SplitParticipant> participants) {
+        Set<Long> seen = new HashSet<>(participants.size() * 2);
+        for (SplitParticipant participant : participants) {
+            if (!seen.add(participant.getUserId())) {
+                throw new IllegalArgumentException("User " + participant.getUserId() + " is listed more than once");
+            }
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.splitwise.splitwiseclone.controller;
+
+import com.splitwise.splitwiseclone.entity.User;
+import com.splitwise.splitwiseclone.security.JwtUtils;
+import com.splitwise.splitwiseclone.service.GroupService;
+import com.splitwise.splitwiseclone.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Access to a group's Server-Sent Events stream.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class GroupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void nonMemberCannotSubscribeToGroupEvents() throws Exception {
+        String run = UUID.randomUUID().toString();
+        User owner = userService.registerUser("owner-" + run + "@test", null, "secret1", "Owner");
+        User stranger = userService.registerUser("stranger-" + run + "@test", null, "secret1", "Stranger");
+        Long groupId = groupService.createGroup("Group " + run, null, owner.getId()).getId();
+
+        mockMvc.perform(get("/api/groups/{id}/events", groupId)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/groups/{id}/events", groupId)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtils.generateToken(user.getEmail(), user.getId());
+    }
+}
@@ -0,0 +1,75 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.BalanceOutboxEntry;
+import com.splitwise.splitwiseclone.enums.BalanceOutboxType;
+import com.splitwise.splitwiseclone.repository.BalanceOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-your-writes tokens of the asynchronous balance pipeline.
+ */
+@SpringBootTest(properties = {
+        "balances.async.enabled=true",
+        "balances.async.sweep-interval=3600000"
+})
+class BalancePipelineServiceTest {
+
+    @Autowired
+    private BalancePipelineService balancePipelineService;
+    @Autowired
+    private BalanceOutboxRepository outboxRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void tokenCommittedAfterAHigherOneWasAppliedIsNotApplied() throws Exception {
+        String run = UUID.randomUUID().toString();
+        Long userId = userService.registerUser("p-" + run + "@test", null, "secret1", "P").getId();
+        Long groupId = groupService.createGroup("Group " + run, null, userId).getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // The lower token's transaction stays open while a higher one commits and is applied
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> lower = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Long id = outboxRepository.save(BalanceOutboxEntry.builder()
+                    .groupId(groupId)
+                    .type(BalanceOutboxType.REBUILD)
+                    .build()).getId();
+            inserted.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Long higher = transactionTemplate.execute(status -> balancePipelineService.enqueueRebuild(groupId));
+        assertThat(balancePipelineService.awaitApplied(groupId, higher, 5000)).isTrue();
+
+        commit.countDown();
+        Long token = lower.get(10, TimeUnit.SECONDS);
+        assertThat(token).isLessThan(higher);
+        assertThat(balancePipelineService.awaitApplied(groupId, token, 0)).isFalse();
+
+        balancePipelineService.sweep();
+        assertThat(balancePipelineService.awaitApplied(groupId, token, 5000)).isTrue();
+    }
+}
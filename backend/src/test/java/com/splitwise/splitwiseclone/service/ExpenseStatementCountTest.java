@@ -0,0 +1,103 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.config.JdbcStatementCounter;
+import com.splitwise.splitwiseclone.dto.ExpenseDetailPage;
+import com.splitwise.splitwiseclone.dto.SplitParticipant;
+import com.splitwise.splitwiseclone.enums.CategoryType;
+import com.splitwise.splitwiseclone.enums.SplitType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.splitwise.splitwiseclone.support.StatementCountAssertions.assertMaxStatements;
+import static com.splitwise.splitwiseclone.support.StatementCountAssertions.assertNoRepeatedStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets of the expense paths most prone to N+1 loops.
+ */
+@SpringBootTest
+class ExpenseStatementCountTest {
+
+    private static final int EXPENSES = 30;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private JdbcStatementCounter statementCounter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private ExpenseArchiveService expenseArchiveService;
+
+    private Long groupId;
+    private Long payerId;
+    private List<SplitParticipant> participants;
+
+    @BeforeEach
+    void createGroupWithExpenses() {
+        String run = UUID.randomUUID().toString();
+        List<Long> userIds = List.of(
+                userService.registerUser("a-" + run + "@test", null, "secret1", "A").getId(),
+                userService.registerUser("b-" + run + "@test", null, "secret1", "B").getId(),
+                userService.registerUser("c-" + run + "@test", null, "secret1", "C").getId());
+        payerId = userIds.get(0);
+        groupId = groupService.createGroup("Group " + run, null, payerId).getId();
+        groupService.addMember(groupId, userIds.get(1), payerId);
+        groupService.addMember(groupId, userIds.get(2), payerId);
+        participants = userIds.stream().map(id -> SplitParticipant.builder().userId(id).build()).toList();
+
+        for (int i = 0; i < EXPENSES; i++) {
+            createExpense();
+        }
+    }
+
+    @Test
+    void expenseDetailsPageLoadsSplitsInOneQuery() {
+        ExpenseDetailPage page = assertNoRepeatedStatements(statementCounter, 2,
+                () -> assertMaxStatements(statementCounter, 3,
+                        () -> expenseService.getGroupExpenseDetails(groupId, 0, PAGE_SIZE)));
+
+        assertThat(page.getItems()).hasSize(PAGE_SIZE);
+        assertThat(page.getItems()).allSatisfy(item -> assertThat(item.getSplits()).hasSize(participants.size()));
+        assertThat(page.getNextPage()).isEqualTo(1);
+    }
+
+    @Test
+    void archivedExpenseDetailsPageReadsEachTierOnce() {
+        expenseArchiveService.archiveGroup(groupId);
+
+        ExpenseDetailPage page = assertNoRepeatedStatements(statementCounter, 2,
+                () -> assertMaxStatements(statementCounter, 5,
+                        () -> expenseService.getGroupExpenseDetails(groupId, 1, PAGE_SIZE)));
+
+        assertThat(page.getItems()).hasSize(EXPENSES - PAGE_SIZE);
+        assertThat(page.getItems()).allSatisfy(item -> assertThat(item.getSplits()).hasSize(participants.size()));
+        assertThat(page.getNextPage()).isNull();
+    }
+
+    @Test
+    void batchedSplitInsertIsCounted() {
+        try (JdbcStatementCounter.Scope scope = statementCounter.begin()) {
+            createExpense();
+
+            // Written through JdbcTemplate, one batch for all participants
+            assertThat(scope.getStatements()).hasEntrySatisfying(
+                    "INSERT INTO expense_splits (expense_id, user_id, amount, percentage, shares) VALUES (?, ?, ?, ?, ?)",
+                    times -> assertThat(times).isEqualTo(1));
+        }
+    }
+
+    private void createExpense() {
+        expenseService.createExpense(new BigDecimal("30.00"), "dinner", CategoryType.FOOD, "USD", payerId,
+                groupId, SplitType.EQUAL, participants, null);
+    }
+}
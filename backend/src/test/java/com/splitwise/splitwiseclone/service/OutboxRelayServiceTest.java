@@ -0,0 +1,123 @@
+package com.splitwise.splitwiseclone.service;
+
+import com.splitwise.splitwiseclone.entity.OutboxEvent;
+import com.splitwise.splitwiseclone.enums.OutboxStatus;
+import com.splitwise.splitwiseclone.event.OutboxSink;
+import com.splitwise.splitwiseclone.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tells a poison event from a sink outage in the outbox relay.
+ */
+@SpringBootTest(properties = {
+        "outbox.initial-delay=3600000",
+        "outbox.max-attempts=3",
+        "outbox.initial-backoff=PT0S",
+        "outbox.sinks.log.enabled=false",
+        "outbox.sinks.file.enabled=false"
+})
+class OutboxRelayServiceTest {
+
+    private static final String POISON = "test.poison";
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TestSink testSink;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void drainOutbox() {
+        testSink.available = true;
+        outboxRelayService.relay();
+    }
+
+    @Test
+    void lonePoisonEventGoesDeadWithoutPausingTheRelay() {
+        Long id = publish(POISON);
+
+        for (int i = 0; i < 3; i++) {
+            outboxRelayService.relay();
+        }
+
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DEAD);
+        assertThat(event.getAttempts()).isEqualTo(3);
+
+        // Not paused: the next event goes straight through
+        Long next = publish("test.ok");
+        outboxRelayService.relay();
+        assertThat(outboxEventRepository.existsById(next)).isFalse();
+    }
+
+    @Test
+    @DirtiesContext
+    void sinkOutageDoesNotUseUpAttempts() {
+        testSink.available = false;
+        Long id = publish("test.ok");
+
+        outboxRelayService.relay();
+
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(event.getAttempts()).isZero();
+    }
+
+    private Long publish(String eventType) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            outboxService.publish(eventType, "test", 1L, null, Map.of());
+            return outboxEventRepository.findAll().stream()
+                    .mapToLong(OutboxEvent::getId)
+                    .max()
+                    .orElseThrow();
+        });
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        TestSink testSink() {
+            return new TestSink();
+        }
+    }
+
+    static class TestSink implements OutboxSink {
+
+        volatile boolean available = true;
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public void deliver(List<OutboxEvent> events) {
+            if (!available) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            if (events.stream().anyMatch(event -> POISON.equals(event.getEventType()))) {
+                throw new IllegalArgumentException("Rejected poison event");
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.splitwise.splitwiseclone.support;
+
+import com.splitwise.splitwiseclone.config.JdbcStatementCounter;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Assertions on the number of JDBC statements a block of code issues, for
+ * catching N+1 regressions in integration tests:
+ *
+ * <pre>
+ * List&lt;BalanceResponse&gt; balances = StatementCountAssertions.assertMaxStatements(
+ *         statementCounter, 3, () -&gt; balanceService.getGroupBalances(groupId));
+ * </pre>
+ *
+ * The counter is the application's JdbcStatementCounter bean. Statements
+ * prepared on the calling thread are counted, through Hibernate or JdbcTemplate.
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    /**
+     * Runs the block and fails if it issued more than max statements.
+     *
+     * @return The block's result
+     */
+    public static <T> T assertMaxStatements(JdbcStatementCounter counter, int max, Supplier<T> block) {
+        T result;
+        JdbcStatementCounter.Scope scope = counter.begin();
+        try {
+            result = block.get();
+        } finally {
+            scope.close();
+        }
+        if (scope.getCount() > max) {
+            throw new AssertionError(describe("Expected at most " + max + " statements but got "
+                    + scope.getCount(), scope.getStatements()));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the block and fails if it issued more than max statements.
+     */
+    public static void assertMaxStatements(JdbcStatementCounter counter, int max, Runnable block) {
+        assertMaxStatements(counter, max, () -> {
+            block.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the block and fails if any single statement was prepared
+     * threshold times or more (an N+1 loop).
+     *
+     * @return The block's result
+     */
+    public static <T> T assertNoRepeatedStatements(JdbcStatementCounter counter, int threshold, Supplier<T> block) {
+        T result;
+        JdbcStatementCounter.Scope scope = counter.begin();
+        try {
+            result = block.get();
+        } finally {
+            scope.close();
+        }
+        Map<String, Integer> repeated = scope.getRepeatedStatements(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError(describe("Statements repeated " + threshold + " or more times", repeated));
+        }
+        return result;
+    }
+
+    private static String describe(String message, Map<String, Integer> statements) {
+        StringBuilder description = new StringBuilder(message).append(':');
+        statements.forEach((sql, times) -> description.append("\n  ").append(times).append("x ").append(sql));
+        return description.toString();
+    }
+}
@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Compares time-to-first-request of the regular jar (ddl-auto=update) with the
+# fast-start build: exploded jar, Spring AOT initializers, an AppCDS archive
+# recorded in a training run and schema validation. Both run against the same
+# H2 file database; writes target/startup-summary.json.
+#
+#   ./startup/run.sh                 # 5 runs each
+#   RUNS=10 PORT=8095 ./startup/run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8089}
+JAR=splitwise-clone-0.0.1-SNAPSHOT.jar
+MAIN=com.splitwise.splitwiseclone.SplitwiseCloneApplication
+
+rm -rf target && mkdir -p target/app target/db
+app_args=(--server.port="$PORT"
+          --spring.datasource.url="jdbc:h2:file:$PWD/target/db/splitwise"
+          --spring.jpa.show-sql=false)
+
+mvn -B -q -f ../pom.xml -DskipTests clean package
+cp "../target/$JAR" target/baseline.jar
+mvn -B -q -f ../pom.xml -DskipTests -Pfast-start clean package
+(cd target/app && jar xf "../../../target/$JAR")
+# AppCDS refuses non-empty directories on the classpath and only maps the archive
+# when the classpath matches the training run exactly
+jar cf target/app/application.jar -C target/app/BOOT-INF/classes .
+classpath="app/application.jar:$(cd target && ls app/BOOT-INF/lib/*.jar | tr '\n' ':')"
+fast_start=(java -Dspring.aot.enabled=true -cp "$classpath" "$MAIN" "${app_args[@]}"
+            --spring.profiles.active=fast-start)
+
+# The applications run in target/, where they create their data directory
+in_target() {
+    (cd target && exec "$@")
+}
+
+# Schema, then the training run: refresh the context, exit, dump loaded classes
+in_target java -Dspring.context.exit=onRefresh -jar baseline.jar "${app_args[@]}" \
+    --spring.jpa.hibernate.ddl-auto=create > target/schema.log 2>&1
+in_target java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+    "${fast_start[@]:1}" > target/training.log 2>&1
+
+# Prints "<ms until /actuator/health answered 200> <seconds Spring reported>"
+measure() {
+    local log=$1; shift
+    local start end pid
+    start=$(date +%s%N)
+    (cd target && exec "$@") > "$log" 2>&1 &
+    pid=$!
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health") == 200 ]]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited during startup, see $log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" || true
+    echo "$(( (end - start) / 1000000 )) $(grep -o 'Started [A-Za-z]* in [0-9.]*' "$log" | awk '{print $NF}')"
+}
+
+# Prints "<min> <median>" of the numbers on stdin
+stats() {
+    sort -n | awk '{v[NR] = $1} END {print v[1], (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2}'
+}
+
+: > target/baseline.txt
+: > target/fast-start.txt
+for i in $(seq 1 "$RUNS"); do
+    measure "target/baseline-$i.log" java -jar baseline.jar "${app_args[@]}" \
+        --spring.jpa.hibernate.ddl-auto=update >> target/baseline.txt
+    measure "target/fast-start-$i.log" java -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+        "${fast_start[@]:1}" >> target/fast-start.txt
+done
+
+read -r base_min base_median < <(cut -d' ' -f1 target/baseline.txt | stats)
+read -r fast_min fast_median < <(cut -d' ' -f1 target/fast-start.txt | stats)
+read -r _ base_spring < <(cut -d' ' -f2 target/baseline.txt | stats)
+read -r _ fast_spring < <(cut -d' ' -f2 target/fast-start.txt | stats)
+
+cat > target/startup-summary.json <<EOF
+{
+  "runs": $RUNS,
+  "baseline": {"firstRequestMinMs": $base_min, "firstRequestMedianMs": $base_median, "springStartedMedianS": $base_spring},
+  "fastStart": {"firstRequestMinMs": $fast_min, "firstRequestMedianMs": $fast_median, "springStartedMedianS": $fast_spring}
+}
+EOF
+cat target/startup-summary.json
@@ -21,6 +21,7 @@ export interface LoginResponse {
     name: string;
     message: string;
     token?: string;
+    refreshToken?: string;
 }
 
 export interface AuthResponse {
@@ -47,6 +48,11 @@ export const authApi = {
     register: async (data: RegisterUserRequest): Promise<LoginResponse> => {
         const response = await apiClient.post<LoginResponse>('/auth/register', data);
         return response.data;
+    },
+
+    logout: async (refreshToken: string | null): Promise<AuthResponse> => {
+        const response = await apiClient.post<AuthResponse>('/auth/logout', { refreshToken });
+        return response.data;
     }
 };
 
@@ -29,17 +29,69 @@ apiClient.interceptors.request.use(
     }
 );
 
+// Refreshes run once at a time: concurrent 401s all wait for the same refresh,
+// since a refresh token can only be used once. Tabs share the tokens through
+// localStorage, so a Web Lock also serializes refreshes across tabs, and a tab
+// that gets the lock after another one rotated the tokens takes the new pair
+// instead of replaying the old refresh token, which the server treats as reuse
+// and answers by revoking every session of the user.
+let refreshInFlight: Promise<string | null> | null = null;
+
+const withRefreshLock = <T>(task: () => Promise<T>): Promise<T> =>
+    // Web Locks only exist in secure contexts; elsewhere only the per-tab guard applies
+    navigator.locks ? navigator.locks.request('splitwise_token_refresh', task) : task();
+
+const refreshAccessToken = (): Promise<string | null> => {
+    if (!refreshInFlight) {
+        const seenRefreshToken = localStorage.getItem('splitwise_refresh_token');
+        refreshInFlight = withRefreshLock(async () => {
+            const refreshToken = localStorage.getItem('splitwise_refresh_token');
+            if (!refreshToken) {
+                return null;
+            }
+            if (refreshToken !== seenRefreshToken) {
+                // Another tab refreshed while this one waited for the lock
+                return localStorage.getItem('splitwise_auth_token');
+            }
+            try {
+                // Plain axios, so a failed refresh does not re-enter this interceptor
+                const response = await axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken });
+                localStorage.setItem('splitwise_auth_token', response.data.token);
+                localStorage.setItem('splitwise_refresh_token', response.data.refreshToken);
+                return response.data.token as string;
+            } catch {
+                return null;
+            }
+        }).finally(() => {
+            refreshInFlight = null;
+        });
+    }
+    return refreshInFlight;
+};
+
 // Response interceptor
 apiClient.interceptors.response.use(
     (response) => response,
-    (error) => {
-        const isLoginRequest = error.config?.url?.includes('/auth/login');
+    async (error) => {
+        const config = error.config;
+        const isAuthRequest = config?.url?.includes('/auth/login') || config?.url?.includes('/auth/refresh');
+
+        if (error.response?.status === 401 && !isAuthRequest) {
+            // Access tokens are short-lived: renew once and replay the request
+            if (config && !config._retried) {
+                const token = await refreshAccessToken();
+                if (token) {
+                    config._retried = true;
+                    config.headers['Authorization'] = `Bearer ${token}`;
+                    return apiClient(config);
+                }
+            }
 
-        if (error.response?.status === 401 && !isLoginRequest) {
             // Handle unauthorized for other requests
             localStorage.removeItem('userId');
             localStorage.removeItem('splitwise_user');
             localStorage.removeItem('splitwise_auth_token');
+            localStorage.removeItem('splitwise_refresh_token');
             window.location.href = '/';
         }
         return Promise.reject(error);
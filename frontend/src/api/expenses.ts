@@ -1,5 +1,11 @@
 import { apiClient } from './client';
-import type { Expense, ExpenseSplit, CreateExpenseRequest, UpdateExpenseRequest } from './types';
+import type {
+    Expense,
+    ExpenseDetailPage,
+    ExpenseSplit,
+    CreateExpenseRequest,
+    UpdateExpenseRequest,
+} from './types';
 
 export const expenseApi = {
     create: async (data: CreateExpenseRequest): Promise<Expense> => {
@@ -23,6 +29,13 @@ export const expenseApi = {
         return response.data;
     },
 
+    getGroupExpenseDetails: async (groupId: number, page = 0, size = 50): Promise<ExpenseDetailPage> => {
+        const response = await apiClient.get<ExpenseDetailPage>(`/expenses/group/${groupId}/details`, {
+            params: { page, size },
+        });
+        return response.data;
+    },
+
     getPersonalExpenses: async (userId: number): Promise<Expense[]> => {
         const response = await apiClient.get<Expense[]>(`/expenses/personal/${userId}`);
         return response.data;
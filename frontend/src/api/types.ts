@@ -68,8 +68,8 @@ export interface Expense {
     groupId?: number;
     splitType: SplitType;
     expenseDate: string;
-    createdAt: string;
-    updatedAt: string;
+    createdAt?: string; // Not included in list responses
+    updatedAt?: string;
 }
 
 export interface ExpenseSplit {
@@ -81,6 +81,15 @@ export interface ExpenseSplit {
     shares?: number;
 }
 
+export interface ExpenseDetail extends Expense {
+    splits: ExpenseSplit[];
+}
+
+export interface ExpenseDetailPage {
+    items: ExpenseDetail[];
+    nextPage: number | null;
+}
+
 export interface Balance {
     id: number;
     fromUserId: number;
@@ -30,6 +30,9 @@ export function LoginForm() {
             if (response.token) {
                 localStorage.setItem('splitwise_auth_token', response.token);
             }
+            if (response.refreshToken) {
+                localStorage.setItem('splitwise_refresh_token', response.refreshToken);
+            }
 
             setIsLoading(false);
             window.location.href = '/dashboard';
@@ -21,6 +21,9 @@ export function useRegisterUser() {
             // Save token and user info using authService
             if (response.token) {
                 authService.saveToken(response.token);
+                if (response.refreshToken) {
+                    authService.saveRefreshToken(response.refreshToken);
+                }
                 authService.saveUser({
                     id: response.id,
                     email: response.email,
@@ -8,6 +8,8 @@ import { Badge } from '@/components/ui/badge';
 import { CreateGroupDialog } from '@/components/groups/CreateGroupDialog';
 import { CreateExpenseDialog } from '@/components/expenses/CreateExpenseDialog';
 import { useState } from 'react';
+import authApi from '@/api/auth';
+import { authService } from '@/services/authService';
 
 export function Dashboard() {
     const navigate = useNavigate();
@@ -19,9 +21,15 @@ export function Dashboard() {
     const [isCreateGroupOpen, setIsCreateGroupOpen] = useState(false);
     const [isCreateExpenseOpen, setIsCreateExpenseOpen] = useState(false);
 
-    const handleLogout = () => {
-        localStorage.clear();
-        window.location.href = '/';
+    const handleLogout = async () => {
+        try {
+            await authApi.logout(authService.getRefreshToken());
+        } catch (error) {
+            console.error('Failed to revoke refresh token:', error);
+        } finally {
+            localStorage.clear();
+            window.location.href = '/';
+        }
     };
 
     return (
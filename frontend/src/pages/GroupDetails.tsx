@@ -11,6 +11,8 @@ import { CreateExpenseDialog } from '@/components/expenses/CreateExpenseDialog';
 import { ManageMembersDialog } from '@/components/groups/ManageMembersDialog';
 import { GroupSettingsDialog } from '@/components/groups/GroupSettingsDialog';
 import { useState } from 'react';
+import authApi from '@/api/auth';
+import { authService } from '@/services/authService';
 
 export function GroupDetails() {
     const { groupId } = useParams<{ groupId: string }>();
@@ -26,6 +28,17 @@ export function GroupDetails() {
     const [isManageMembersOpen, setIsManageMembersOpen] = useState(false);
     const [isSettingsOpen, setIsSettingsOpen] = useState(false);
 
+    const handleLogout = async () => {
+        try {
+            await authApi.logout(authService.getRefreshToken());
+        } catch (error) {
+            console.error('Failed to revoke refresh token:', error);
+        } finally {
+            localStorage.clear();
+            window.location.href = '/login';
+        }
+    };
+
     if (isLoadingGroup || isLoadingMembers || isLoadingExpenses) {
         return (
             <div className="min-h-screen flex items-center justify-center">
@@ -84,10 +97,7 @@ export function GroupDetails() {
                             variant="ghost"
                             size="sm"
                             className="text-muted-foreground hover:text-foreground"
-                            onClick={() => {
-                                localStorage.clear();
-                                window.location.href = '/login';
-                            }}
+                            onClick={handleLogout}
                         >
                             Logout
                         </Button>
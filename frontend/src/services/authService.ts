@@ -1,6 +1,7 @@
 // Authentication service for managing JWT tokens
 
 const TOKEN_KEY = 'splitwise_auth_token';
+const REFRESH_TOKEN_KEY = 'splitwise_refresh_token';
 const USER_KEY = 'splitwise_user';
 
 export interface AuthUser {
@@ -18,8 +19,17 @@ export const authService = {
         return localStorage.getItem(TOKEN_KEY);
     },
 
+    saveRefreshToken(token: string): void {
+        localStorage.setItem(REFRESH_TOKEN_KEY, token);
+    },
+
+    getRefreshToken(): string | null {
+        return localStorage.getItem(REFRESH_TOKEN_KEY);
+    },
+
     removeToken(): void {
         localStorage.removeItem(TOKEN_KEY);
+        localStorage.removeItem(REFRESH_TOKEN_KEY);
         localStorage.removeItem(USER_KEY);
         localStorage.removeItem('userId');
     },